@@ -0,0 +1,33 @@
+package com.synapse.github.cache;
+
+import java.util.List;
+import java.util.Map;
+
+// A stored 200 response: its headers and decoded body, revalidated with its ETag / Last-Modified
+record CachedResponse(Map<String, List<String>> headers, byte[] body) {
+    
+    String etag() {
+        return first("ETag");
+    }
+    
+    String lastModified() {
+        return first("Last-Modified");
+    }
+    
+    // Approximate heap footprint, used for the size bound
+    long sizeBytes() {
+        long size = body.length;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            size += header.getKey().length();
+            for (String value : header.getValue()) {
+                size += value.length();
+            }
+        }
+        return size;
+    }
+    
+    private String first(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
\ No newline at end of file
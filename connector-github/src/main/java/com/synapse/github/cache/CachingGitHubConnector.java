@@ -0,0 +1,289 @@
+package com.synapse.github.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Makes every GitHub API GET conditional: responses carrying an ETag or Last-Modified are kept,
+// and the next request for the same URL sends If-None-Match / If-Modified-Since. A 304 does not
+// count against the rate limit and is answered with the stored body, so unchanged repository
+// listings, pull request pages and metadata cost neither budget nor transfer.
+// Entries live in a byte-bounded LRU in memory, optionally backed by a larger tier on disk.
+@Component
+public class CachingGitHubConnector implements GitHubConnector {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CachingGitHubConnector.class);
+    
+    // The stored body is already decoded, and Content-Length no longer describes what is replayed
+    private static final Set<String> UNSTORED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+    
+    private final GitHubConnector delegate = GitHubConnector.DEFAULT;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final DiskResponseCache disk;
+    
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long sizeBytes;
+    private long evictions;
+    
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter modified;
+    
+    public CachingGitHubConnector(@Value("${github.cache.enabled:true}") boolean enabled,
+                                  @Value("${github.cache.max-bytes:33554432}") long maxBytes,
+                                  @Value("${github.cache.max-entry-bytes:2097152}") long maxEntryBytes,
+                                  @Value("${github.cache.disk.enabled:false}") boolean diskEnabled,
+                                  @Value("${github.cache.disk.directory:data/github-cache}") String diskDirectory,
+                                  @Value("${github.cache.disk.max-bytes:268435456}") long diskMaxBytes,
+                                  MeterRegistry meterRegistry) throws IOException {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.disk = enabled && diskEnabled 
+                ? new DiskResponseCache(Paths.get(diskDirectory).toAbsolutePath(), diskMaxBytes) 
+                : null;
+        
+        this.hits = requests(meterRegistry, "hit", "Conditional GitHub requests answered 304 and served from the cache");
+        this.misses = requests(meterRegistry, "miss", "GitHub GET requests with nothing cached to revalidate");
+        this.modified = requests(meterRegistry, "modified", "Conditional GitHub requests whose cached response had changed");
+        
+        Gauge.builder("synapse.github.cache.size", this, CachingGitHubConnector::memorySizeBytes)
+                .description("Bytes of GitHub responses held by the cache")
+                .tag("tier", "memory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("synapse.github.cache.evictions", this, CachingGitHubConnector::memoryEvictions)
+                .description("GitHub responses evicted from the cache to stay within its size bound")
+                .tag("tier", "memory")
+                .register(meterRegistry);
+        if (disk != null) {
+            Gauge.builder("synapse.github.cache.size", disk, DiskResponseCache::sizeBytes)
+                    .description("Bytes of GitHub responses held by the cache")
+                    .tag("tier", "disk")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            FunctionCounter.builder("synapse.github.cache.evictions", disk, DiskResponseCache::evictions)
+                    .description("GitHub responses evicted from the cache to stay within its size bound")
+                    .tag("tier", "disk")
+                    .register(meterRegistry);
+            logger.info("GitHub response cache persisting to {}", diskDirectory);
+        }
+    }
+    
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        if (!enabled || !"GET".equals(request.method()) || hasValidators(request)) {
+            return delegate.send(request);
+        }
+        
+        String key = keyOf(request);
+        CachedResponse cached = lookup(key);
+        if (cached == null) {
+            misses.increment();
+            return store(key, delegate.send(request));
+        }
+        
+        GitHubConnectorResponse response = delegate.send(new ConditionalRequest(request, cached));
+        if (response.statusCode() == 304) {
+            hits.increment();
+            try (response) {
+                return new ReplayedResponse(request, 200, revalidated(cached, response), cached.body());
+            }
+        }
+        
+        modified.increment();
+        return store(key, response);
+    }
+    
+    // The Accept header selects the media type, and so the body, for the same URL
+    private static String keyOf(GitHubConnectorRequest request) {
+        String accept = request.header("Accept");
+        return request.url() + (accept != null ? " " + accept : "");
+    }
+    
+    // Requests that are already conditional are left to the caller
+    private static boolean hasValidators(GitHubConnectorRequest request) {
+        return request.header("If-None-Match") != null || request.header("If-Modified-Since") != null;
+    }
+    
+    private CachedResponse lookup(String key) {
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null || disk == null) {
+                return cached;
+            }
+        }
+        
+        CachedResponse cached = disk.get(key);
+        if (cached != null) {
+            putInMemory(key, cached);
+        }
+        return cached;
+    }
+    
+    // Buffers a cacheable 200 so it can be both stored and handed back; anything else passes through
+    private GitHubConnectorResponse store(String key, GitHubConnectorResponse response) throws IOException {
+        if (response.statusCode() != 200 
+                || (response.header("ETag") == null && response.header("Last-Modified") == null)) {
+            return response;
+        }
+        
+        byte[] body;
+        try (response; InputStream in = response.bodyStream()) {
+            body = in.readAllBytes();
+        }
+        
+        CachedResponse cached = new CachedResponse(storedHeaders(response.allHeaders()), body);
+        if (cached.sizeBytes() <= maxEntryBytes) {
+            putInMemory(key, cached);
+            if (disk != null) {
+                disk.put(key, cached);
+            }
+        }
+        return new ReplayedResponse(response.request(), response.statusCode(), cached.headers(), body);
+    }
+    
+    private void putInMemory(String key, CachedResponse cached) {
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, cached);
+            sizeBytes += cached.sizeBytes() - (previous != null ? previous.sizeBytes() : 0);
+            
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (sizeBytes > maxBytes && eldest.hasNext()) {
+                sizeBytes -= eldest.next().sizeBytes();
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+    
+    // Headers of the 304, such as the current rate limit and validators, take precedence over the stored ones
+    private static Map<String, List<String>> revalidated(CachedResponse cached, GitHubConnectorResponse notModified) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(cached.headers());
+        headers.putAll(storedHeaders(notModified.allHeaders()));
+        return headers;
+    }
+    
+    private static Map<String, List<String>> storedHeaders(Map<String, List<String>> source) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> header : source.entrySet()) {
+            if (header.getKey() != null && header.getValue() != null 
+                    && !UNSTORED_HEADERS.contains(header.getKey().toLowerCase())) {
+                headers.put(header.getKey(), List.copyOf(header.getValue()));
+            }
+        }
+        return headers;
+    }
+    
+    private long memorySizeBytes() {
+        synchronized (entries) {
+            return sizeBytes;
+        }
+    }
+    
+    private long memoryEvictions() {
+        synchronized (entries) {
+            return evictions;
+        }
+    }
+    
+    private static Counter requests(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("synapse.github.cache.requests")
+                .description(description)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    // The original request with the cached entry's validators added
+    private static class ConditionalRequest implements GitHubConnectorRequest {
+        
+        private final GitHubConnectorRequest request;
+        private final Map<String, List<String>> headers;
+        
+        ConditionalRequest(GitHubConnectorRequest request, CachedResponse cached) {
+            this.request = request;
+            this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            this.headers.putAll(request.allHeaders());
+            if (cached.etag() != null) {
+                this.headers.put("If-None-Match", List.of(cached.etag()));
+            }
+            if (cached.lastModified() != null) {
+                this.headers.put("If-Modified-Since", List.of(cached.lastModified()));
+            }
+        }
+        
+        @Override
+        public String method() {
+            return request.method();
+        }
+        
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return headers;
+        }
+        
+        @Override
+        public String header(String name) {
+            List<String> values = headers.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+        
+        @Override
+        public String contentType() {
+            return request.contentType();
+        }
+        
+        @Override
+        public InputStream body() {
+            return request.body();
+        }
+        
+        @Override
+        public URL url() {
+            return request.url();
+        }
+        
+        @Override
+        public boolean hasBody() {
+            return request.hasBody();
+        }
+    }
+    
+    private static class ReplayedResponse extends GitHubConnectorResponse.ByteArrayResponse {
+        
+        private final byte[] body;
+        
+        ReplayedResponse(GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, byte[] body) {
+            super(request, statusCode, headers);
+            this.body = body;
+        }
+        
+        @Override
+        protected InputStream rawBodyStream() {
+            return new ByteArrayInputStream(body);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+package com.synapse.github.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Second tier of the response cache: one file per entry, named by the SHA-256 of its key, so
+// validators survive restarts. Files are evicted oldest-used first once the directory grows past
+// maxBytes. Disk errors are logged and treated as misses, since the tier is only an optimization.
+// File layout: int version | UTF key | int header count | (UTF name | int value count | UTF values) | int body length | body
+class DiskResponseCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DiskResponseCache.class);
+    
+    private static final int VERSION = 1;
+    private static final String FILE_SUFFIX = ".entry";
+    
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong sizeBytes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    DiskResponseCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            sizeBytes.set(files.filter(file -> file.toString().endsWith(FILE_SUFFIX))
+                    .mapToLong(DiskResponseCache::sizeOf)
+                    .sum());
+        }
+    }
+    
+    CachedResponse get(String key) {
+        Path path = pathOf(key);
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            CachedResponse response = decode(key, bytes);
+            if (response == null) {
+                remove(path);
+                return null;
+            }
+            // Marks the entry as recently used for eviction
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return response;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Failed to read cached GitHub response {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+    
+    void put(String key, CachedResponse response) {
+        Path path = pathOf(key);
+        try {
+            byte[] bytes = encode(key, response);
+            if (bytes.length > maxBytes) {
+                return;
+            }
+            
+            long previous = sizeOf(path);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            
+            if (sizeBytes.addAndGet(bytes.length - previous) > maxBytes) {
+                evict();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write cached GitHub response {}: {}", path, e.getMessage());
+        }
+    }
+    
+    long sizeBytes() {
+        return sizeBytes.get();
+    }
+    
+    long evictions() {
+        return evictions.get();
+    }
+    
+    private synchronized void evict() throws IOException {
+        if (sizeBytes.get() <= maxBytes) {
+            return;
+        }
+        
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = new ArrayList<>(stream.filter(file -> file.toString().endsWith(FILE_SUFFIX)).toList());
+        }
+        files.sort(Comparator.comparingLong(DiskResponseCache::lastModified));
+        
+        for (Path file : files) {
+            if (sizeBytes.get() <= maxBytes) {
+                break;
+            }
+            remove(file);
+            evictions.incrementAndGet();
+        }
+    }
+    
+    private void remove(Path path) throws IOException {
+        long size = sizeOf(path);
+        if (Files.deleteIfExists(path)) {
+            sizeBytes.addAndGet(-size);
+        }
+    }
+    
+    private Path pathOf(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + FILE_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private static byte[] encode(String key, CachedResponse response) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(response.body().length + 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(VERSION);
+            out.writeUTF(key);
+            out.writeInt(response.headers().size());
+            for (Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeInt(header.getValue().size());
+                for (String value : header.getValue()) {
+                    out.writeUTF(value);
+                }
+            }
+            out.writeInt(response.body().length);
+            out.write(response.body());
+        }
+        return bytes.toByteArray();
+    }
+    
+    // Returns null for files from another version or, however unlikely, another key with the same hash
+    private static CachedResponse decode(String key, byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+            
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            int headerCount = in.readInt();
+            for (int i = 0; i < headerCount; i++) {
+                String name = in.readUTF();
+                int valueCount = in.readInt();
+                List<String> values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(in.readUTF());
+                }
+                headers.put(name, List.copyOf(values));
+            }
+            
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new CachedResponse(headers, body);
+        }
+    }
+    
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
\ No newline at end of file
@@ -3,17 +3,33 @@ package com.synapse.github.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.synapse.core.encoding.ContentEncoding;
+import com.synapse.core.http.IngestionRestTemplateFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class GitHubConnectorConfiguration {
     
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ObjectMapper objectMapper,
+                                     @Value("${synapse.ingestion-api.url}") String ingestionApiUrl,
+                                     @Value("${synapse.ingestion-api.compression.enabled:true}") boolean compress,
+                                     @Value("${synapse.ingestion-api.compression.encoding:gzip}") ContentEncoding encoding,
+                                     @Value("${synapse.ingestion-api.compression.min-size-bytes:1024}") int minSizeBytes,
+                                     @Value("${synapse.ingestion-api.retry.max-attempts:4}") int maxAttempts,
+                                     @Value("${synapse.ingestion-api.retry.initial-backoff-ms:500}") long initialBackoffMs,
+                                     @Value("${synapse.ingestion-api.retry.max-backoff-ms:30000}") long maxBackoffMs,
+                                     @Value("${synapse.ingestion-api.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                     @Value("${synapse.ingestion-api.read-timeout-ms:30000}") long readTimeoutMs) {
+        return IngestionRestTemplateFactory.create(objectMapper, new IngestionRestTemplateFactory.Settings(
+                ingestionApiUrl, compress, encoding, minSizeBytes, maxAttempts, initialBackoffMs, maxBackoffMs,
+                Duration.ofMillis(connectTimeoutMs), Duration.ofMillis(readTimeoutMs)));
     }
     
     @Bean
@@ -0,0 +1,59 @@
+package com.synapse.github.controller;
+
+import com.synapse.github.service.GitHubWebhookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Receives GitHub webhooks; configure the webhook with content type application/json and the
+// same secret as GITHUB_WEBHOOK_SECRET. The raw body is taken as bytes, since the signature covers it exactly.
+@RestController
+@RequestMapping("/api/v1/github")
+public class GitHubWebhookController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GitHubWebhookController.class);
+    
+    private final GitHubWebhookService webhookService;
+    
+    public GitHubWebhookController(GitHubWebhookService webhookService) {
+        this.webhookService = webhookService;
+    }
+    
+    @PostMapping("/webhook")
+    public ResponseEntity<String> receive(@RequestHeader("X-GitHub-Event") String event,
+                                          @RequestHeader(value = "X-GitHub-Delivery", required = false) String deliveryId,
+                                          @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+                                          @RequestBody byte[] body) {
+        if (!webhookService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Webhook secret is not configured");
+        }
+        
+        if (!webhookService.verifySignature(body, signature)) {
+            logger.warn("Rejected GitHub {} delivery {} with an invalid signature", event, deliveryId);
+            webhookService.record(event, "rejected");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid signature");
+        }
+        
+        if ("ping".equals(event)) {
+            return ResponseEntity.ok("pong");
+        }
+        
+        if (!webhookService.isSupported(event)) {
+            webhookService.record(event, "ignored");
+            return ResponseEntity.ok("Event ignored: " + event);
+        }
+        
+        if (!webhookService.markDelivered(deliveryId)) {
+            webhookService.record(event, "redelivered");
+            return ResponseEntity.ok("Delivery already received");
+        }
+        
+        // Missed deliveries are picked up by the next reconciliation sync, or can be redelivered
+        if (!webhookService.submit(event, deliveryId, body)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many deliveries in progress");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body("Delivery accepted");
+    }
+}
\ No newline at end of file
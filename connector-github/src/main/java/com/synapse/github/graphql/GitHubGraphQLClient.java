@@ -0,0 +1,99 @@
+package com.synapse.github.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.synapse.github.service.GitHubRateLimitScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+
+// Posts queries to the GitHub GraphQL API, paced by GitHubRateLimitScheduler against the GraphQL budget.
+// The endpoint is configurable so a local stub server can stand in for GitHub.
+@Component
+public class GitHubGraphQLClient {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GitHubGraphQLClient.class);
+    
+    @Value("${github.token}")
+    private String githubToken;
+    
+    @Value("${github.graphql.url:https://api.github.com/graphql}")
+    private String graphqlUrl;
+    
+    // Not the shared RestTemplate, which is set up for the ingestion API's wire formats and compression
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ObjectMapper objectMapper;
+    private final GitHubRateLimitScheduler rateLimitScheduler;
+    
+    public GitHubGraphQLClient(ObjectMapper objectMapper, GitHubRateLimitScheduler rateLimitScheduler) {
+        this.objectMapper = objectMapper;
+        this.rateLimitScheduler = rateLimitScheduler;
+    }
+    
+    // Returns the data object. Errors alongside data, such as a repository that has been deleted,
+    // are logged and leave their field null; errors without data fail the query.
+    public JsonNode query(String query) throws IOException {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("query", query);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setBearerAuth(githubToken);
+        
+        try {
+            rateLimitScheduler.awaitGraphQL();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the GitHub GraphQL rate limit");
+        }
+        
+        ResponseEntity<JsonNode> entity = restTemplate.postForEntity(graphqlUrl, new HttpEntity<>(request, headers), JsonNode.class);
+        recordRateLimit(entity.getHeaders());
+        JsonNode response = entity.getBody();
+        if (response == null) {
+            throw new IOException("Empty response from GitHub GraphQL API");
+        }
+        
+        JsonNode data = response.path("data");
+        JsonNode errors = response.path("errors");
+        if (!errors.isMissingNode() && !errors.isEmpty()) {
+            if (data.isMissingNode() || data.isNull()) {
+                throw new IOException("GitHub GraphQL query failed: " + errors);
+            }
+            logger.warn("GitHub GraphQL query returned errors: {}", errors);
+        }
+        
+        JsonNode rateLimit = data.path("rateLimit");
+        if (!rateLimit.isMissingNode()) {
+            logger.debug("GitHub GraphQL query cost {} points, {} remaining", 
+                        rateLimit.path("cost").asInt(), rateLimit.path("remaining").asInt());
+        }
+        return data;
+    }
+    
+    // Absent when a stub server stands in for GitHub
+    private void recordRateLimit(HttpHeaders headers) {
+        String limit = headers.getFirst("X-RateLimit-Limit");
+        String remaining = headers.getFirst("X-RateLimit-Remaining");
+        String reset = headers.getFirst("X-RateLimit-Reset");
+        if (limit != null && remaining != null && reset != null) {
+            try {
+                rateLimitScheduler.recordGraphQL(Integer.parseInt(limit), Integer.parseInt(remaining), Long.parseLong(reset));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed GitHub GraphQL rate limit headers: {}", e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,279 @@
+package com.synapse.github.graphql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Fetches the commits and pull requests of many repositories in a few GraphQL queries, one
+// aliased repository field per repository, instead of REST calls per repository plus one per
+// commit for its file statistics. Commit stats and PR counters come back inline with the nodes.
+// Connections with more pages are followed in further queries, again batched across repositories.
+@Component
+public class GitHubGraphQLFetcher {
+    
+    private static final int COMMIT_PAGE_SIZE = 100;
+    
+    // Each pull request also pulls its review threads, so pages are kept smaller to bound the query's node count
+    private static final int PULL_REQUEST_PAGE_SIZE = 50;
+    private static final int REVIEW_THREAD_PAGE_SIZE = 100;
+    
+    // Pull requests whose remaining review threads are fetched in one follow-up query
+    private static final int REVIEW_THREAD_BATCH_SIZE = 20;
+    
+    private static final String REPOSITORY_FIELDS = "nameWithOwner name";
+    
+    private static final String METADATA_FIELDS = "description url stargazerCount forkCount primaryLanguage { name } updatedAt";
+    
+    private static final String COMMIT_FRAGMENT = """
+            fragment CommitFields on Commit {
+              oid message url committedDate additions deletions changedFilesIfAvailable
+              author { name email }
+            }
+            """;
+    
+    private static final String PULL_REQUEST_FRAGMENT = """
+            fragment PullRequestFields on PullRequest {
+              id number title body state url createdAt updatedAt
+              author { login }
+              headRefName baseRefName additions deletions changedFiles
+              commits { totalCount }
+              comments { totalCount }
+              reviewThreads(first: %d) { ...ReviewThreadPage }
+            }
+            """.formatted(REVIEW_THREAD_PAGE_SIZE);
+    
+    private static final String REVIEW_THREAD_FRAGMENT = """
+            fragment ReviewThreadPage on PullRequestReviewThreadConnection {
+              pageInfo { hasNextPage endCursor }
+              nodes { comments { totalCount } }
+            }
+            """;
+    
+    private final GitHubGraphQLClient client;
+    private final ObjectMapper objectMapper;
+    
+    public GitHubGraphQLFetcher(GitHubGraphQLClient client, ObjectMapper objectMapper) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+    
+    // Commits since and pull requests updated since each repository's checkpoint, keyed by full name,
+    // plus the metadata fields of the repositories in metadataDue. Repositories GitHub could not resolve are left out.
+    public Map<String, RepositoryActivity> fetch(Map<String, Date> sinceByRepository, Set<String> metadataDue) 
+            throws IOException {
+        Map<String, Cursor> pending = new LinkedHashMap<>();
+        sinceByRepository.forEach((fullName, since) -> 
+                pending.put(fullName, new Cursor(fullName, since, metadataDue.contains(fullName))));
+        
+        Map<String, RepositoryActivity> activities = new LinkedHashMap<>();
+        while (!pending.isEmpty()) {
+            List<Cursor> round = new ArrayList<>(pending.values());
+            JsonNode data = client.query(buildQuery(round));
+            
+            for (int i = 0; i < round.size(); i++) {
+                Cursor cursor = round.get(i);
+                JsonNode repository = data.path(alias(i));
+                if (repository.isMissingNode() || repository.isNull()) {
+                    pending.remove(cursor.fullName);
+                    continue;
+                }
+                
+                RepositoryActivity activity = activities.computeIfAbsent(cursor.fullName, 
+                        name -> new RepositoryActivity(repository, new ArrayList<>(), new ArrayList<>()));
+                if (cursor.commitsPending) {
+                    readCommits(cursor, repository, activity);
+                }
+                if (cursor.pullRequestsPending) {
+                    readPullRequests(cursor, repository, activity);
+                }
+                if (!cursor.commitsPending && !cursor.pullRequestsPending) {
+                    pending.remove(cursor.fullName);
+                }
+            }
+        }
+        
+        fetchRemainingReviewThreads(activities);
+        return activities;
+    }
+    
+    private void readCommits(Cursor cursor, JsonNode repository, RepositoryActivity activity) {
+        // Empty repositories have no default branch
+        JsonNode history = repository.path("defaultBranchRef").path("target").path("history");
+        for (JsonNode commit : history.path("nodes")) {
+            activity.commits().add(commit);
+        }
+        
+        JsonNode pageInfo = history.path("pageInfo");
+        cursor.commitsPending = pageInfo.path("hasNextPage").asBoolean(false);
+        cursor.commitsAfter = pageInfo.path("endCursor").asText(null);
+    }
+    
+    // Ordered by updated time, descending, so paging stops at the first pull request not updated since the checkpoint
+    private void readPullRequests(Cursor cursor, JsonNode repository, RepositoryActivity activity) {
+        JsonNode pullRequests = repository.path("pullRequests");
+        for (JsonNode pullRequest : pullRequests.path("nodes")) {
+            if (!Instant.parse(pullRequest.path("updatedAt").asText()).isAfter(cursor.since.toInstant())) {
+                cursor.pullRequestsPending = false;
+                return;
+            }
+            activity.pullRequests().add(pullRequest);
+        }
+        
+        JsonNode pageInfo = pullRequests.path("pageInfo");
+        cursor.pullRequestsPending = pageInfo.path("hasNextPage").asBoolean(false);
+        cursor.pullRequestsAfter = pageInfo.path("endCursor").asText(null);
+    }
+    
+    // Review comments are summed over a pull request's review threads, so pull requests with more
+    // threads than the first page get the rest appended to their reviewThreads nodes, again in
+    // queries batched across pull requests
+    private void fetchRemainingReviewThreads(Map<String, RepositoryActivity> activities) throws IOException {
+        List<ThreadCursor> pending = new ArrayList<>();
+        for (RepositoryActivity activity : activities.values()) {
+            for (JsonNode pullRequest : activity.pullRequests()) {
+                JsonNode threads = pullRequest.path("reviewThreads");
+                if (threads.path("pageInfo").path("hasNextPage").asBoolean(false) 
+                        && threads.path("nodes") instanceof ArrayNode nodes) {
+                    // The follow-up query looks the pull request up by its node id
+                    String id = pullRequest.path("id").asText();
+                    if (id.isBlank()) {
+                        throw new IOException("Pull request " + pullRequest.path("number").asInt() 
+                                + " has more review threads but no node id to fetch them by");
+                    }
+                    pending.add(new ThreadCursor(id, nodes, threads.path("pageInfo").path("endCursor").asText(null)));
+                }
+            }
+        }
+        
+        while (!pending.isEmpty()) {
+            List<ThreadCursor> round = new ArrayList<>(pending.subList(0, Math.min(pending.size(), REVIEW_THREAD_BATCH_SIZE)));
+            JsonNode data = client.query(buildReviewThreadQuery(round));
+            
+            for (int i = 0; i < round.size(); i++) {
+                ThreadCursor cursor = round.get(i);
+                JsonNode threads = data.path(alias(i)).path("reviewThreads");
+                threads.path("nodes").forEach(cursor.nodes::add);
+                
+                JsonNode pageInfo = threads.path("pageInfo");
+                cursor.after = pageInfo.path("endCursor").asText(null);
+                if (!pageInfo.path("hasNextPage").asBoolean(false)) {
+                    pending.remove(cursor);
+                }
+            }
+        }
+    }
+    
+    private String buildQuery(List<Cursor> round) throws JsonProcessingException {
+        StringBuilder query = new StringBuilder("query {\n");
+        boolean commits = false, pullRequests = false;
+        
+        for (int i = 0; i < round.size(); i++) {
+            Cursor cursor = round.get(i);
+            String[] ownerAndName = cursor.fullName.split("/", 2);
+            query.append("  ").append(alias(i)).append(": repository(owner: ").append(literal(ownerAndName[0]))
+                 .append(", name: ").append(literal(ownerAndName[1])).append(") {\n    ")
+                 .append(REPOSITORY_FIELDS);
+            if (cursor.metadataPending) {
+                query.append(' ').append(METADATA_FIELDS);
+                cursor.metadataPending = false;
+            }
+            query.append('\n');
+            
+            if (cursor.commitsPending) {
+                commits = true;
+                query.append("    defaultBranchRef { target { ... on Commit { history(first: ").append(COMMIT_PAGE_SIZE)
+                     .append(", since: ").append(literal(cursor.since.toInstant().toString()))
+                     .append(after(cursor.commitsAfter))
+                     .append(") { pageInfo { hasNextPage endCursor } nodes { ...CommitFields } } } } }\n");
+            }
+            if (cursor.pullRequestsPending) {
+                pullRequests = true;
+                query.append("    pullRequests(first: ").append(PULL_REQUEST_PAGE_SIZE)
+                     .append(after(cursor.pullRequestsAfter))
+                     .append(", orderBy: {field: UPDATED_AT, direction: DESC})")
+                     .append(" { pageInfo { hasNextPage endCursor } nodes { ...PullRequestFields } }\n");
+            }
+            query.append("  }\n");
+        }
+        query.append("  rateLimit { cost remaining resetAt }\n}\n");
+        
+        // GitHub rejects queries that define a fragment they do not use
+        if (commits) {
+            query.append(COMMIT_FRAGMENT);
+        }
+        if (pullRequests) {
+            query.append(PULL_REQUEST_FRAGMENT).append(REVIEW_THREAD_FRAGMENT);
+        }
+        return query.toString();
+    }
+    
+    private String buildReviewThreadQuery(List<ThreadCursor> round) throws JsonProcessingException {
+        StringBuilder query = new StringBuilder("query {\n");
+        for (int i = 0; i < round.size(); i++) {
+            ThreadCursor cursor = round.get(i);
+            query.append("  ").append(alias(i)).append(": node(id: ").append(literal(cursor.pullRequestId))
+                 .append(") { ... on PullRequest { reviewThreads(first: ").append(REVIEW_THREAD_PAGE_SIZE)
+                 .append(after(cursor.after)).append(") { ...ReviewThreadPage } } }\n");
+        }
+        query.append("  rateLimit { cost remaining resetAt }\n}\n");
+        return query.append(REVIEW_THREAD_FRAGMENT).toString();
+    }
+    
+    private String after(String endCursor) throws JsonProcessingException {
+        return endCursor != null ? ", after: " + literal(endCursor) : "";
+    }
+    
+    private String literal(String value) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(value);
+    }
+    
+    private static String alias(int index) {
+        return "r" + index;
+    }
+    
+    // The repository node from the first query, with the metadata fields if they were due; commits and
+    // pull requests are the raw GraphQL nodes
+    public record RepositoryActivity(JsonNode repository, List<JsonNode> commits, List<JsonNode> pullRequests) {
+    }
+    
+    private static class Cursor {
+        
+        private final String fullName;
+        private final Date since;
+        private boolean metadataPending;
+        private boolean commitsPending = true;
+        private boolean pullRequestsPending = true;
+        private String commitsAfter;
+        private String pullRequestsAfter;
+        
+        Cursor(String fullName, Date since, boolean metadataPending) {
+            this.fullName = fullName;
+            this.since = since;
+            this.metadataPending = metadataPending;
+        }
+    }
+    
+    private static class ThreadCursor {
+        
+        private final String pullRequestId;
+        private final ArrayNode nodes;
+        private String after;
+        
+        ThreadCursor(String pullRequestId, ArrayNode nodes, String after) {
+            this.pullRequestId = pullRequestId;
+            this.nodes = nodes;
+            this.after = after;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.synapse.github.repository;
+
+import com.synapse.core.constants.EventType;
+import com.synapse.core.constants.SourceSystem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// Repository activity computed from the GitHub events this connector has already ingested, instead
+// of paging through the GitHub API. Events are matched on the payload's repository field through the
+// payload GIN index, and the time bound lets the query skip partitions outside the window.
+// source_entity_id is counted distinct, since a commit or pull request is stored again whenever its content changes.
+@Repository
+public class GitHubActivityRepository {
+    
+    // The events only answer for a window the sync has covered without a gap: the repository's first
+    // checkpoint, less the initial lookback its first sync fetched, must predate the window, and its
+    // latest checkpoint must be recent. Checkpoints never advance past events that failed to send
+    private static final String COVERAGE_SQL = """
+        SELECT EXISTS (
+            SELECT 1
+            FROM connector_sync_state
+            WHERE source_system = ?
+              AND sync_key = ?
+              AND created_at - make_interval(hours => ?) <= ?
+              AND last_sync_timestamp >= ?
+        )
+        """;
+    
+    private static final String ACTIVITY_SQL = """
+        SELECT count(DISTINCT e.source_entity_id) FILTER (WHERE t.name = ?) AS commits,
+               count(DISTINCT e.payload->>'author') FILTER (WHERE t.name = ?) AS contributors,
+               count(DISTINCT e.source_entity_id) FILTER (WHERE t.name = ?) AS pull_requests
+        FROM events e
+        JOIN event_types t ON t.id = e.event_type_id
+        WHERE e.source_system_id = (SELECT id FROM source_systems WHERE name = ?)
+          AND e.payload @> jsonb_build_object('repository', ?::text)
+          AND e.event_timestamp >= ?
+        """;
+    
+    @Value("${github.sync.initial-lookback-hours:24}")
+    private int initialLookbackHours;
+    
+    // A checkpoint older than two reconciliation intervals means syncing has stalled
+    @Value("${github.sync.reconcile-interval-ms:3600000}")
+    private long reconcileIntervalMs;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public GitHubActivityRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    // Null when the stored events do not cover the whole window
+    public RecentActivity recentActivity(String repository, Instant since) {
+        Timestamp windowStart = Timestamp.from(since);
+        Timestamp syncedSince = Timestamp.from(Instant.now().minusMillis(2 * reconcileIntervalMs));
+        Boolean covered = jdbcTemplate.queryForObject(COVERAGE_SQL, Boolean.class, 
+                                                      SourceSystem.GITHUB, repository, initialLookbackHours, 
+                                                      windowStart, syncedSince);
+        if (!Boolean.TRUE.equals(covered)) {
+            return null;
+        }
+        
+        // Pull request events are timestamped with the PR's creation, so this counts PRs created in the window
+        return jdbcTemplate.queryForObject(ACTIVITY_SQL, 
+                (rs, rowNum) -> new RecentActivity(rs.getLong("commits"), rs.getLong("contributors"), 
+                                                   rs.getLong("pull_requests")),
+                EventType.GITHUB_COMMIT_PUSHED, EventType.GITHUB_COMMIT_PUSHED, EventType.GITHUB_PULL_REQUEST_OPENED,
+                SourceSystem.GITHUB, repository, windowStart);
+    }
+    
+    public record RecentActivity(long commits, long contributors, long pullRequests) {
+    }
+}
\ No newline at end of file
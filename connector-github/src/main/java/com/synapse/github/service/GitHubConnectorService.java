@@ -6,10 +6,17 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.synapse.core.SynapseEvent;
 import com.synapse.core.constants.EventType;
 import com.synapse.core.constants.SourceSystem;
+import com.synapse.core.json.WireFormat;
+import com.synapse.github.cache.CachingGitHubConnector;
+import com.synapse.github.graphql.GitHubGraphQLFetcher;
+import com.synapse.github.repository.GitHubActivityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.kohsuke.github.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -22,12 +29,18 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class GitHubConnectorService {
     
     private static final Logger logger = LoggerFactory.getLogger(GitHubConnectorService.class);
     
+    // Largest page the pull request listing allows, so an early stop wastes at most one page
+    private static final int PULL_REQUEST_PAGE_SIZE = 100;
+    
     @Value("${github.token}")
     private String githubToken;
     
@@ -37,23 +50,72 @@ public class GitHubConnectorService {
     @Value("${synapse.ingestion-api.url}")
     private String ingestionApiUrl;
     
+    @Value("${synapse.ingestion-api.wire-format:json}")
+    private WireFormat wireFormat;
+    
+    // Repositories synced at the same time; API pacing is left to the rate limit scheduler
+    @Value("${github.sync.concurrency:8}")
+    private int syncConcurrency;
+    
+    // REST fetches per repository, plus one request per commit for its file statistics;
+    // GRAPHQL fetches commits with stats and pull requests with counters for batch-size repositories per query
+    @Value("${github.fetch-mode:rest}")
+    private FetchMode fetchMode;
+    
+    @Value("${github.graphql.batch-size:10}")
+    private int graphqlBatchSize;
+    
+    // Set when webhooks deliver changes as they happen; polling then only reconciles missed deliveries
+    @Value("${github.webhook.secret:}")
+    private String webhookSecret;
+    
+    @Value("${github.sync.reconcile-interval-ms:3600000}")
+    private long reconcileIntervalMs;
+    
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final GitHubSyncStateService syncStateService;
+    private final GitHubRateLimitScheduler rateLimitScheduler;
+    private final CachingGitHubConnector cachingConnector;
+    private final GitHubGraphQLFetcher graphqlFetcher;
+    private final RepositoryMetadataCache metadataCache;
+    private final RepositoryAnalysisCache analysisCache;
+    private final GitHubActivityRepository activityRepository;
+    private final MeterRegistry meterRegistry;
     
     private GitHub github;
-    private Map<String, Date> repositoryLastSync = new HashMap<>();
+    private volatile long lastSyncStartedAt;
     
     public GitHubConnectorService(RestTemplate restTemplate, ObjectMapper objectMapper, 
-                                 GitHubSyncStateService syncStateService) {
+                                 GitHubSyncStateService syncStateService, 
+                                 GitHubRateLimitScheduler rateLimitScheduler, 
+                                 CachingGitHubConnector cachingConnector, 
+                                 GitHubGraphQLFetcher graphqlFetcher, RepositoryMetadataCache metadataCache, 
+                                 RepositoryAnalysisCache analysisCache, GitHubActivityRepository activityRepository, 
+                                 MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.syncStateService = syncStateService;
+        this.rateLimitScheduler = rateLimitScheduler;
+        this.cachingConnector = cachingConnector;
+        this.graphqlFetcher = graphqlFetcher;
+        this.metadataCache = metadataCache;
+        this.analysisCache = analysisCache;
+        this.activityRepository = activityRepository;
+        this.meterRegistry = meterRegistry;
     }
     
     @Scheduled(fixedDelay = 300000) // Run every 5 minutes
+    public void scheduledSync() {
+        if (!webhookSecret.isBlank() && System.currentTimeMillis() - lastSyncStartedAt < reconcileIntervalMs) {
+            return;
+        }
+        syncGitHubRepositories();
+    }
+    
     public void syncGitHubRepositories() {
         logger.debug("Starting GitHub repositories sync for user: {}", githubUsername);
+        lastSyncStartedAt = System.currentTimeMillis();
         
         try {
             initializeGitHub();
@@ -63,93 +125,276 @@ public class GitHubConnectorService {
             
             logger.info("Found {} repositories for user: {}", repositories.size(), githubUsername);
             
-            for (GHRepository repo : repositories.values()) {
-                try {
-                    syncRepository(repo);
-                } catch (Exception e) {
-                    logger.error("Failed to sync repository: {}", repo.getName(), e);
+            long start = System.nanoTime();
+            // Virtual threads, since sync threads spend nearly all their time waiting on HTTP;
+            // close() waits for every repository to finish
+            try (ExecutorService executor = Executors.newFixedThreadPool(syncConcurrency, 
+                    Thread.ofVirtual().name("github-sync-", 0).factory())) {
+                if (fetchMode == FetchMode.GRAPHQL) {
+                    List<GHRepository> repos = new ArrayList<>(repositories.values());
+                    for (int from = 0; from < repos.size(); from += graphqlBatchSize) {
+                        List<GHRepository> batch = repos.subList(from, Math.min(from + graphqlBatchSize, repos.size()));
+                        executor.submit(() -> timedSyncBatch(batch));
+                    }
+                } else {
+                    for (GHRepository repo : repositories.values()) {
+                        executor.submit(() -> timedSyncRepository(repo));
+                    }
                 }
             }
             
+            logger.info("Synced {} repositories in {} ms, {} GitHub API requests remaining", 
+                       repositories.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 
+                       rateLimitScheduler.remaining());
+            
         } catch (Exception e) {
             logger.error("Failed to sync GitHub repositories", e);
         }
     }
     
-    private void initializeGitHub() throws IOException {
+    // The shared client, also used to parse webhook payloads so their objects can make API calls
+    synchronized GitHub github() throws IOException {
+        initializeGitHub();
+        return github;
+    }
+    
+    private synchronized void initializeGitHub() throws IOException {
         if (github == null) {
-            github = new GitHubBuilder().withOAuthToken(githubToken).build();
+            github = new GitHubBuilder()
+                    .withOAuthToken(githubToken)
+                    .withRateLimitChecker(rateLimitScheduler)
+                    .withConnector(cachingConnector)
+                    .build();
             logger.info("GitHub API client initialized for user: {}", githubUsername);
         }
     }
     
+    private void timedSyncRepository(GHRepository repo) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            syncRepository(repo);
+        } catch (Exception e) {
+            outcome = "failure";
+            logger.error("Failed to sync repository: {}", repo.getName(), e);
+        } finally {
+            sample.stop(Timer.builder("synapse.github.repository.sync")
+                    .description("Time to sync one repository's commits and pull requests")
+                    .tag("repository", repo.getFullName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+    
+    private void timedSyncBatch(List<GHRepository> batch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            syncRepositoryBatch(batch);
+        } catch (Exception e) {
+            outcome = "failure";
+            logger.error("Failed to sync batch of {} repositories", batch.size(), e);
+        } finally {
+            sample.stop(Timer.builder("synapse.github.repository.batch.sync")
+                    .description("Time to sync a batch of repositories' commits and pull requests over GraphQL")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+    
+    private void syncRepositoryBatch(List<GHRepository> batch) throws IOException {
+        Map<String, Date> sinceByRepository = new LinkedHashMap<>();
+        Set<String> metadataDue = new HashSet<>();
+        for (GHRepository repo : batch) {
+            if (metadataCache.isStale(repo.getFullName())) {
+                metadataDue.add(repo.getFullName());
+            }
+            sinceByRepository.put(repo.getFullName(), syncStateService.getLastSyncTimestamp(repo.getFullName()));
+        }
+        
+        Date syncedAt = new Date();
+        Map<String, GitHubGraphQLFetcher.RepositoryActivity> activities = graphqlFetcher.fetch(sinceByRepository, metadataDue);
+        
+        for (Map.Entry<String, GitHubGraphQLFetcher.RepositoryActivity> entry : activities.entrySet()) {
+            GitHubGraphQLFetcher.RepositoryActivity activity = entry.getValue();
+            int commitCount = 0, prCount = 0, failedCount = 0;
+            
+            if (metadataDue.contains(entry.getKey())) {
+                syncRepositoryMetadata(RepositoryMetadata.of(activity.repository()));
+            }
+            
+            for (JsonNode commit : activity.commits()) {
+                try {
+                    sendEventToIngestionApi(createCommitEvent(activity.repository(), commit));
+                    commitCount++;
+                } catch (Exception e) {
+                    failedCount++;
+                    logger.error("Failed to process commit: {}", commit.path("oid").asText(), e);
+                }
+            }
+            for (JsonNode pr : activity.pullRequests()) {
+                try {
+                    sendEventToIngestionApi(createPullRequestEvent(activity.repository(), pr));
+                    prCount++;
+                } catch (Exception e) {
+                    failedCount++;
+                    logger.error("Failed to process pull request: {}", pr.path("number").asInt(), e);
+                }
+            }
+            
+            // History comes newest first, so the first commit is the latest one synced
+            String newestCommit = activity.commits().isEmpty() ? null : activity.commits().get(0).path("oid").asText();
+            updateCheckpoint(entry.getKey(), syncedAt, newestCommit, failedCount);
+            logger.info("Processed {} commits and {} pull requests for repository: {}", 
+                       commitCount, prCount, entry.getKey());
+        }
+    }
+    
     private void syncRepository(GHRepository repo) throws IOException {
         logger.debug("Syncing repository: {}", repo.getFullName());
         
         String repoKey = repo.getFullName();
-        Date lastSync = repositoryLastSync.get(repoKey);
+        Date lastSync = syncStateService.getLastSyncTimestamp(repoKey);
+        // Taken before fetching, so anything pushed while the sync runs is picked up next time
+        Date syncedAt = new Date();
         
-        // For first sync or if last sync was more than 1 hour ago, sync last 24 hours
-        if (lastSync == null) {
-            lastSync = new Date(System.currentTimeMillis() - 24 * 60 * 60 * 1000); // 24 hours ago
+        if (metadataCache.isStale(repoKey)) {
+            syncRepositoryMetadata(RepositoryMetadata.of(repo));
         }
         
         // Sync commits
-        syncCommits(repo, lastSync);
+        CommitSync commits = syncCommits(repo, lastSync);
         
         // Sync pull requests
-        syncPullRequests(repo, lastSync);
+        int failedPullRequests = syncPullRequests(repo, lastSync);
         
-        // Update last sync timestamp
-        repositoryLastSync.put(repoKey, new Date());
+        // Update last sync checkpoint
+        updateCheckpoint(repoKey, syncedAt, commits.newestCommit(), commits.failed() + failedPullRequests);
         
         logger.debug("Completed sync for repository: {}", repo.getFullName());
     }
     
-    private void syncCommits(GHRepository repo, Date since) throws IOException {
+    // Advances the checkpoint only when every event since the last one was sent. Otherwise the next sync
+    // starts from the same point and re-sends them; the ones that did arrive are dropped as duplicates.
+    private void updateCheckpoint(String repoKey, Date syncedAt, String newestCommit, int failed) {
+        if (failed > 0) {
+            logger.warn("Holding checkpoint for repository {}: {} events failed to send and will be retried",
+                       repoKey, failed);
+            return;
+        }
+        syncStateService.updateCheckpoint(repoKey, syncedAt, newestCommit);
+    }
+    
+    // The SHA of the newest commit seen, or null if there were none, and how many commits failed to send
+    private record CommitSync(String newestCommit, int failed) {
+    }
+    
+    private CommitSync syncCommits(GHRepository repo, Date since) throws IOException {
         logger.debug("Syncing commits for repository: {} since {}", repo.getFullName(), since);
         
         PagedIterable<GHCommit> commits = repo.queryCommits()
             .since(since)
             .list();
         
-        int commitCount = 0;
+        int commitCount = 0, failedCount = 0;
+        String newestCommit = null;
         for (GHCommit commit : commits) {
+            if (newestCommit == null) {
+                newestCommit = commit.getSHA1();
+            }
             try {
                 SynapseEvent event = createCommitEvent(repo, commit);
                 sendEventToIngestionApi(event);
                 commitCount++;
             } catch (Exception e) {
+                failedCount++;
                 logger.error("Failed to process commit: {}", commit.getSHA1(), e);
             }
         }
         
         logger.info("Processed {} commits for repository: {}", commitCount, repo.getFullName());
+        return new CommitSync(newestCommit, failedCount);
     }
     
-    private void syncPullRequests(GHRepository repo, Date since) throws IOException {
+    // Returns how many pull requests failed to send
+    private int syncPullRequests(GHRepository repo, Date since) throws IOException {
         logger.debug("Syncing pull requests for repository: {} since {}", repo.getFullName(), since);
         
-        List<GHPullRequest> pullRequests = repo.getPullRequests(GHIssueState.ALL);
-        int prCount = 0;
+        List<GHPullRequest> pullRequests = pullRequestsUpdatedSince(repo, since);
+        int prCount = 0, failedCount = 0;
         
         for (GHPullRequest pr : pullRequests) {
             try {
-                // Only sync PRs created or updated since our last sync
-                if (pr.getCreatedAt().after(since) || pr.getUpdatedAt().after(since)) {
-                    SynapseEvent event = createPullRequestEvent(repo, pr);
-                    sendEventToIngestionApi(event);
-                    prCount++;
-                }
+                SynapseEvent event = createPullRequestEvent(repo, pr);
+                sendEventToIngestionApi(event);
+                prCount++;
             } catch (Exception e) {
+                failedCount++;
                 logger.error("Failed to process pull request: {}", pr.getNumber(), e);
             }
         }
         
         logger.info("Processed {} pull requests for repository: {}", prCount, repo.getFullName());
+        return failedCount;
+    }
+    
+    // Pages through pull requests most recently updated first and stops at the first one not updated
+    // since the checkpoint, so the cost follows the number of changed PRs rather than the repository's history.
+    // A PR's updated time is never before its created time, so this also covers every PR created since.
+    private List<GHPullRequest> pullRequestsUpdatedSince(GHRepository repo, Date since) throws IOException {
+        PagedIterable<GHPullRequest> pullRequests = repo.queryPullRequests()
+            .state(GHIssueState.ALL)
+            .sort(GHPullRequestQueryBuilder.Sort.UPDATED)
+            .direction(GHDirection.DESC)
+            .list()
+            .withPageSize(PULL_REQUEST_PAGE_SIZE);
+        
+        List<GHPullRequest> updated = new ArrayList<>();
+        for (GHPullRequest pr : pullRequests) {
+            if (!pr.getUpdatedAt().after(since)) {
+                break;
+            }
+            updated.add(pr);
+        }
+        return updated;
+    }
+    
+    // Sent only when the metadata changed; commit and pull request events reference the repository by name
+    private void syncRepositoryMetadata(RepositoryMetadata metadata) {
+        if (!metadataCache.update(metadata)) {
+            return;
+        }
+        
+        try {
+            sendEventToIngestionApi(createRepositoryEvent(metadata));
+            logger.info("Repository metadata changed for repository: {}", metadata.repository());
+        } catch (Exception e) {
+            // Re-read and re-sent on the next sync
+            metadataCache.invalidate(metadata.repository());
+            logger.error("Failed to process metadata for repository: {}", metadata.repository(), e);
+        }
     }
     
-    private SynapseEvent createCommitEvent(GHRepository repo, GHCommit commit) throws IOException {
+    private SynapseEvent createRepositoryEvent(RepositoryMetadata metadata) {
+        ObjectNode payload = objectMapper.createObjectNode();
+        
+        payload.put("repository", metadata.repository());
+        payload.put("description", metadata.description());
+        payload.put("language", metadata.language());
+        payload.put("stars", metadata.stars());
+        payload.put("forks", metadata.forks());
+        payload.put("url", metadata.url());
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.GITHUB)
+                .sourceEntityId("REPO_" + metadata.repository())
+                .eventType(EventType.GITHUB_REPOSITORY_UPDATED)
+                .timestamp(metadata.updatedAt())
+                .payload(payload)
+                .build();
+    }
+    
+    SynapseEvent createCommitEvent(GHRepository repo, GHCommit commit) throws IOException {
         ObjectNode payload = objectMapper.createObjectNode();
         
         // Basic commit info
@@ -182,12 +427,6 @@ public class GitHubConnectorService {
             payload.put("deletions", deletions);
         }
         
-        // Repository metadata
-        payload.put("repositoryDescription", repo.getDescription());
-        payload.put("repositoryLanguage", repo.getLanguage());
-        payload.put("repositoryStars", repo.getStargazersCount());
-        payload.put("repositoryForks", repo.getForksCount());
-        
         Instant commitTime = shortInfo.getCommitDate().toInstant();
         
         return SynapseEvent.builder()
@@ -199,7 +438,7 @@ public class GitHubConnectorService {
                 .build();
     }
     
-    private SynapseEvent createPullRequestEvent(GHRepository repo, GHPullRequest pr) throws IOException {
+    SynapseEvent createPullRequestEvent(GHRepository repo, GHPullRequest pr) throws IOException {
         ObjectNode payload = objectMapper.createObjectNode();
         
         // Basic PR info
@@ -231,11 +470,6 @@ public class GitHubConnectorService {
         payload.put("reviewComments", pr.getReviewComments());
         payload.put("comments", pr.getCommentsCount());
         
-        // Repository metadata
-        payload.put("repositoryDescription", repo.getDescription());
-        payload.put("repositoryLanguage", repo.getLanguage());
-        payload.put("repositoryStars", repo.getStargazersCount());
-        
         // Use created date for the event timestamp
         Instant eventTime = pr.getCreatedAt().toInstant();
         
@@ -248,10 +482,101 @@ public class GitHubConnectorService {
                 .build();
     }
     
-    private void sendEventToIngestionApi(SynapseEvent event) {
+    // Same payload as the REST commit event, from a GraphQL Commit node and its repository
+    SynapseEvent createCommitEvent(JsonNode repo, JsonNode commit) {
+        ObjectNode payload = objectMapper.createObjectNode();
+        
+        // Basic commit info
+        payload.put("repository", repo.path("nameWithOwner").asText());
+        payload.put("commitId", commit.path("oid").asText());
+        payload.put("message", commit.path("message").asText());
+        payload.put("url", commit.path("url").asText());
+        payload.put("branch", "main"); // Default, could be enhanced to detect actual branch
+        
+        // Author info
+        JsonNode author = commit.path("author");
+        if (author.isObject()) {
+            payload.put("author", textOrNull(author.path("name")));
+            payload.put("authorEmail", textOrNull(author.path("email")));
+        } else {
+            payload.put("author", "unknown");
+            payload.put("authorEmail", "unknown");
+        }
+        
+        // File statistics, totals GitHub has already summed over the files
+        int filesChanged = commit.path("changedFilesIfAvailable").asInt(0);
+        if (filesChanged > 0) {
+            payload.put("filesChanged", filesChanged);
+            payload.put("additions", commit.path("additions").asInt());
+            payload.put("deletions", commit.path("deletions").asInt());
+        }
+        
+        Instant commitTime = Instant.parse(commit.path("committedDate").asText());
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.GITHUB)
+                .sourceEntityId(commit.path("oid").asText())
+                .eventType(EventType.GITHUB_COMMIT_PUSHED)
+                .timestamp(commitTime)
+                .payload(payload)
+                .build();
+    }
+    
+    // Same payload as the REST pull request event, from a GraphQL PullRequest node and its repository
+    SynapseEvent createPullRequestEvent(JsonNode repo, JsonNode pr) {
+        ObjectNode payload = objectMapper.createObjectNode();
+        
+        // Basic PR info
+        payload.put("repository", repo.path("nameWithOwner").asText());
+        payload.put("pullRequestNumber", pr.path("number").asInt());
+        payload.put("title", pr.path("title").asText());
+        payload.put("body", pr.path("body").asText(""));
+        // REST reports merged pull requests as closed
+        payload.put("state", "MERGED".equals(pr.path("state").asText()) ? "CLOSED" : pr.path("state").asText());
+        payload.put("url", pr.path("url").asText());
+        
+        // Author info, null for deleted accounts
+        JsonNode author = pr.path("author");
+        payload.put("author", author.isObject() ? author.path("login").asText() : "unknown");
+        
+        // Branch info
+        payload.put("headBranch", pr.path("headRefName").asText());
+        payload.put("baseBranch", pr.path("baseRefName").asText());
+        
+        // Statistics
+        payload.put("additions", pr.path("additions").asInt());
+        payload.put("deletions", pr.path("deletions").asInt());
+        payload.put("changedFiles", pr.path("changedFiles").asInt());
+        payload.put("commits", pr.path("commits").path("totalCount").asInt());
+        
+        // Review info; review comments are counted across the review threads
+        int reviewComments = 0;
+        for (JsonNode thread : pr.path("reviewThreads").path("nodes")) {
+            reviewComments += thread.path("comments").path("totalCount").asInt();
+        }
+        payload.put("reviewComments", reviewComments);
+        payload.put("comments", pr.path("comments").path("totalCount").asInt());
+        
+        // Use created date for the event timestamp
+        Instant eventTime = Instant.parse(pr.path("createdAt").asText());
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.GITHUB)
+                .sourceEntityId("PR_" + repo.path("name").asText() + "_" + pr.path("number").asInt())
+                .eventType(EventType.GITHUB_PULL_REQUEST_OPENED)
+                .timestamp(eventTime)
+                .payload(payload)
+                .build();
+    }
+    
+    private static String textOrNull(JsonNode node) {
+        return node.isMissingNode() || node.isNull() ? null : node.asText();
+    }
+    
+    void sendEventToIngestionApi(SynapseEvent event) {
         try {
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentType(MediaType.parseMediaType(wireFormat.contentType()));
             
             HttpEntity<SynapseEvent> request = new HttpEntity<>(event, headers);
             
@@ -285,8 +610,12 @@ public class GitHubConnectorService {
         }
     }
     
-    // Repository analysis endpoint
+    // Repository analysis endpoint, served from the analysis cache
     public Map<String, Object> analyzeRepository(String repositoryName) {
+        return analysisCache.get(repositoryName, this::computeAnalysis);
+    }
+    
+    private Map<String, Object> computeAnalysis(String repositoryName) {
         try {
             initializeGitHub();
             
@@ -305,6 +634,7 @@ public class GitHubConnectorService {
             analysis.put("createdAt", repo.getCreatedAt());
             analysis.put("updatedAt", repo.getUpdatedAt());
             analysis.put("pushedAt", repo.getPushedAt());
+            analysis.put("analyzedAt", Instant.now());
             
             // Recent activity analysis
             Map<String, Object> activity = analyzeRecentActivity(repo);
@@ -330,6 +660,23 @@ public class GitHubConnectorService {
         // Last 30 days activity
         Date thirtyDaysAgo = new Date(System.currentTimeMillis() - 30L * 24 * 60 * 60 * 1000);
         
+        // From the events already ingested when they cover the window, saving the pages of API calls below
+        try {
+            GitHubActivityRepository.RecentActivity stored = 
+                    activityRepository.recentActivity(repo.getFullName(), thirtyDaysAgo.toInstant());
+            if (stored != null) {
+                activity.put("commitsLast30Days", stored.commits());
+                activity.put("activeContributorsLast30Days", stored.contributors());
+                activity.put("pullRequestsLast30Days", stored.pullRequests());
+                activity.put("source", "events");
+                return activity;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not read activity for repository {} from stored events, asking GitHub: {}", 
+                       repo.getFullName(), e.getMessage());
+        }
+        activity.put("source", "github");
+        
         PagedIterable<GHCommit> recentCommits = repo.queryCommits()
             .since(thirtyDaysAgo)
             .list();
@@ -349,16 +696,12 @@ public class GitHubConnectorService {
         
         // Pull requests activity
         try {
-            List<GHPullRequest> recentPRs = repo.getPullRequests(GHIssueState.ALL);
-            long recentPRCount = recentPRs.stream()
-                .filter(pr -> {
-                    try {
-                        return pr.getCreatedAt().after(thirtyDaysAgo);
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
+            long recentPRCount = 0;
+            for (GHPullRequest pr : pullRequestsUpdatedSince(repo, thirtyDaysAgo)) {
+                if (pr.getCreatedAt().after(thirtyDaysAgo)) {
+                    recentPRCount++;
+                }
+            }
             
             activity.put("pullRequestsLast30Days", recentPRCount);
         } catch (Exception e) {
@@ -423,4 +766,9 @@ public class GitHubConnectorService {
         else if (score >= 60) return "D";
         else return "F";
     }
+    
+    public enum FetchMode {
+        REST,
+        GRAPHQL
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.synapse.github.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.RateLimitChecker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Consulted by the GitHub client before every API request, with the budget from the latest
+// X-RateLimit-Remaining / X-RateLimit-Reset headers. Below pace-below remaining requests, requests
+// from all sync threads are spaced out so the budget lasts until the reset; at reserve remaining
+// they wait for the reset, so the limit itself is never hit. GraphQL queries draw on their own
+// budget, counted in points, which GitHubGraphQLClient reports and is paced against separately.
+@Component
+public class GitHubRateLimitScheduler extends RateLimitChecker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GitHubRateLimitScheduler.class);
+    
+    @Value("${github.rate-limit.reserve:100}")
+    private int reserve;
+    
+    @Value("${github.rate-limit.pace-below:1000}")
+    private int paceBelow;
+    
+    private final AtomicLong remaining = new AtomicLong(-1);
+    private final AtomicLong limit = new AtomicLong(-1);
+    private final AtomicLong resetEpochSeconds = new AtomicLong(-1);
+    private final AtomicReference<GHRateLimit.Record> graphqlBudget = new AtomicReference<>();
+    private final Timer throttled;
+    
+    private final Pacing restPacing = new Pacing();
+    private final Pacing graphqlPacing = new Pacing();
+    
+    public GitHubRateLimitScheduler(MeterRegistry meterRegistry) {
+        Gauge.builder("synapse.github.ratelimit.remaining", remaining, AtomicLong::get)
+                .description("GitHub API requests left in the current rate limit window, -1 before the first response")
+                .register(meterRegistry);
+        Gauge.builder("synapse.github.ratelimit.limit", limit, AtomicLong::get)
+                .description("GitHub API requests allowed per rate limit window")
+                .register(meterRegistry);
+        Gauge.builder("synapse.github.ratelimit.reset.seconds", resetEpochSeconds, 
+                      reset -> reset.get() < 0 ? -1 : Math.max(0, reset.get() - System.currentTimeMillis() / 1000))
+                .description("Seconds until the GitHub rate limit window resets")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("synapse.github.ratelimit.graphql.remaining", graphqlBudget, 
+                      budget -> budget.get() != null ? budget.get().getRemaining() : -1)
+                .description("GitHub GraphQL points left in the current rate limit window, -1 before the first query")
+                .register(meterRegistry);
+        this.throttled = Timer.builder("synapse.github.ratelimit.throttled")
+                .description("Time GitHub API requests were held back to stay within the rate limit")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected boolean checkRateLimit(GHRateLimit.Record record, long count) throws InterruptedException {
+        remaining.set(record.getRemaining());
+        limit.set(record.getLimit());
+        resetEpochSeconds.set(record.getResetEpochSeconds());
+        
+        return throttle(record, restPacing);
+    }
+    
+    // The GraphQL client does not go through the GitHub client, so it reports the budget from each
+    // response's X-RateLimit headers and calls awaitGraphQL before its next query
+    public void recordGraphQL(int limit, int remaining, long resetEpochSeconds) {
+        graphqlBudget.set(new GHRateLimit.Record(limit, remaining, resetEpochSeconds));
+    }
+    
+    public void awaitGraphQL() throws InterruptedException {
+        GHRateLimit.Record record = graphqlBudget.get();
+        // Nothing to go on before the first response, and a fresh budget once the window has reset
+        if (record != null && !record.isExpired()) {
+            throttle(record, graphqlPacing);
+        }
+    }
+    
+    public long remaining() {
+        return remaining.get();
+    }
+    
+    private boolean throttle(GHRateLimit.Record record, Pacing pacing) throws InterruptedException {
+        if (record.getRemaining() <= reserve) {
+            logger.warn("GitHub rate limit at {} of {} requests, waiting for reset at {}", 
+                       record.getRemaining(), record.getLimit(), record.getResetDate());
+            long start = System.nanoTime();
+            // Returns true so the client re-reads the limit after the reset before going ahead
+            boolean waited = sleepUntilReset(record);
+            throttled.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return waited;
+        }
+        
+        if (record.getRemaining() < paceBelow) {
+            long wait = pacing.reserveSlot(record, reserve);
+            if (wait > 0) {
+                Thread.sleep(wait);
+                throttled.record(wait, TimeUnit.MILLISECONDS);
+            }
+        }
+        return false;
+    }
+    
+    // Earliest time the next paced request against one budget may go out, shared by all threads
+    private static class Pacing {
+        
+        private long nextRequestAtMillis;
+        
+        synchronized long reserveSlot(GHRateLimit.Record record, int reserve) {
+            long now = System.currentTimeMillis();
+            long untilReset = Math.max(0, record.getResetDate().getTime() - now);
+            long interval = untilReset / Math.max(1, record.getRemaining() - reserve);
+            
+            long slot = Math.max(now, nextRequestAtMillis);
+            nextRequestAtMillis = slot + interval;
+            return slot - now;
+        }
+    }
+}
\ No newline at end of file
@@ -1,51 +1,80 @@
 package com.synapse.github.service;
 
+import com.synapse.core.constants.SourceSystem;
+import com.synapse.core.sync.ConnectorCheckpointStore;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
-import java.util.concurrent.ConcurrentHashMap;
 
+// Per-repository checkpoints, kept in connector_sync_state by the shared ConnectorCheckpointStore.
+// Updates are written to the table in one batch every flush interval and on shutdown, so a restart
+// resumes from the last checkpoint instead of re-scanning history.
 @Service
 public class GitHubSyncStateService {
     
     private static final Logger logger = LoggerFactory.getLogger(GitHubSyncStateService.class);
     
-    // For MVP, we'll use in-memory storage. In production, this should be persisted to database
-    private final ConcurrentHashMap<String, Date> syncState = new ConcurrentHashMap<>();
+    @Value("${github.sync.initial-lookback-hours:24}")
+    private long initialLookbackHours;
+    
+    private final ConnectorCheckpointStore checkpoints;
+    
+    public GitHubSyncStateService(JdbcTemplate jdbcTemplate) {
+        this.checkpoints = new ConnectorCheckpointStore(jdbcTemplate, SourceSystem.GITHUB);
+    }
     
     public Date getLastSyncTimestamp(String repositoryKey) {
-        Date lastSync = syncState.get(repositoryKey);
+        ConnectorCheckpointStore.Checkpoint checkpoint = checkpoints.load(repositoryKey);
         
-        if (lastSync == null) {
-            // First time running, start from 7 days ago to get recent activity
-            Instant sevenDaysAgo = Instant.now().minus(7, ChronoUnit.DAYS);
-            lastSync = Date.from(sevenDaysAgo);
-            
+        if (checkpoint == null) {
+            // First time running, start from the initial lookback to avoid overwhelming the first sync
+            Instant start = Instant.now().minus(initialLookbackHours, ChronoUnit.HOURS);
             logger.info("No previous sync state found for repository: {}. Starting from: {}", 
-                       repositoryKey, sevenDaysAgo);
-        } else {
-            logger.debug("Found previous sync timestamp for repository {}: {}", repositoryKey, lastSync);
+                       repositoryKey, start);
+            return Date.from(start);
         }
         
-        return lastSync;
+        logger.debug("Found previous sync timestamp for repository {}: {}", repositoryKey, checkpoint.lastSyncTimestamp());
+        return Date.from(checkpoint.lastSyncTimestamp());
+    }
+    
+    public String getLastProcessedId(String repositoryKey) {
+        ConnectorCheckpointStore.Checkpoint checkpoint = checkpoints.load(repositoryKey);
+        return checkpoint != null ? checkpoint.lastProcessedId() : null;
     }
     
     public void updateLastSyncTimestamp(String repositoryKey, Date timestamp) {
-        syncState.put(repositoryKey, timestamp);
-        logger.debug("Updated sync state for repository {}: {}", repositoryKey, timestamp);
+        updateCheckpoint(repositoryKey, timestamp, null);
+    }
+    
+    // A null lastProcessedId keeps the one already recorded, e.g. when nothing new was synced
+    public void updateCheckpoint(String repositoryKey, Date timestamp, String lastProcessedId) {
+        checkpoints.update(repositoryKey, timestamp.toInstant(), lastProcessedId);
     }
     
     public void clearSyncState(String repositoryKey) {
-        syncState.remove(repositoryKey);
-        logger.info("Cleared sync state for repository: {}", repositoryKey);
+        checkpoints.clear(repositoryKey);
     }
     
     public void clearAllSyncState() {
-        syncState.clear();
-        logger.info("Cleared all sync state");
+        checkpoints.clearAll();
+    }
+    
+    @Scheduled(fixedDelayString = "${github.sync.checkpoint-flush-interval-ms:5000}")
+    public void flush() {
+        checkpoints.flush();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        checkpoints.flush();
     }
 }
\ No newline at end of file
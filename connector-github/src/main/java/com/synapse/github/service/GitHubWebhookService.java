@@ -0,0 +1,216 @@
+package com.synapse.github.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.kohsuke.github.GHCommit;
+import org.kohsuke.github.GHEventPayload;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Turns GitHub webhook deliveries into the same commit and pull request events the polling sync
+// sends, built by the same code, so a later reconciliation pass re-sends identical payloads and the
+// ingestion API's content-hash idempotency drops them. Deliveries are answered as soon as they are
+// verified and queued; GitHub expects a response within 10 seconds.
+@Service
+public class GitHubWebhookService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GitHubWebhookService.class);
+    
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final Set<String> SUPPORTED_EVENTS = 
+            Set.of("push", "pull_request", "pull_request_review", "pull_request_review_comment");
+    
+    // Delivery IDs remembered to drop redeliveries
+    private static final int RECENT_DELIVERIES = 1000;
+    
+    @Value("${github.webhook.secret:}")
+    private String secret;
+    
+    private final GitHubConnectorService connectorService;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = 
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("github-webhook-", 0).factory());
+    // Each push delivery reads every commit from the API, so a burst of deliveries would otherwise
+    // start that many concurrent API calls
+    private final Semaphore inFlight;
+    
+    private final Map<String, Boolean> recentDeliveries = new LinkedHashMap<>(RECENT_DELIVERIES, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RECENT_DELIVERIES;
+        }
+    };
+    
+    public GitHubWebhookService(GitHubConnectorService connectorService, MeterRegistry meterRegistry, 
+                                @Value("${github.webhook.max-concurrent-deliveries:16}") int maxConcurrentDeliveries) {
+        this.connectorService = connectorService;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxConcurrentDeliveries);
+    }
+    
+    // Webhooks are on once a secret is configured; unsigned deliveries are never accepted
+    public boolean isEnabled() {
+        return !secret.isBlank();
+    }
+    
+    public boolean isSupported(String event) {
+        return SUPPORTED_EVENTS.contains(event);
+    }
+    
+    // Checks X-Hub-Signature-256, the HMAC-SHA256 of the raw body keyed with the webhook secret
+    public boolean verifySignature(byte[] body, String signature) {
+        if (!isEnabled() || signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            return false;
+        }
+        
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(body);
+            byte[] actual = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+            // Constant time, so the comparison does not leak how much of a forged signature matched
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+    
+    // Returns false for a delivery ID already seen, which GitHub sends again on manual redelivery
+    public boolean markDelivered(String deliveryId) {
+        if (deliveryId == null) {
+            return true;
+        }
+        synchronized (recentDeliveries) {
+            return recentDeliveries.put(deliveryId, Boolean.TRUE) == null;
+        }
+    }
+    
+    // Returns false without queuing the delivery when max-concurrent-deliveries are already being
+    // processed; the delivery ID is forgotten so a redelivery is accepted
+    public boolean submit(String event, String deliveryId, byte[] body) {
+        if (!inFlight.tryAcquire()) {
+            forget(deliveryId);
+            record(event, "shed");
+            return false;
+        }
+        
+        record(event, "accepted");
+        executor.execute(() -> {
+            try {
+                process(event, body);
+            } catch (Exception e) {
+                // Lets a redelivery from GitHub's delivery log through
+                forget(deliveryId);
+                record(event, "failed");
+                logger.error("Failed to process GitHub {} delivery {}", event, deliveryId, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+        return true;
+    }
+    
+    // The event tag comes from a header that may be unsigned, so only known event names are used as tag
+    // values and anything else is counted as "other"
+    public void record(String event, String outcome) {
+        Counter.builder("synapse.github.webhook.deliveries")
+                .description("GitHub webhook deliveries received")
+                .tag("event", SUPPORTED_EVENTS.contains(event) ? event : "other")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    private void forget(String deliveryId) {
+        if (deliveryId != null) {
+            synchronized (recentDeliveries) {
+                recentDeliveries.remove(deliveryId);
+            }
+        }
+    }
+    
+    // Review events carry the pull request without its counters, which are read when the event is built
+    private void process(String event, byte[] body) throws IOException {
+        GitHub github = connectorService.github();
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)) {
+            switch (event) {
+                case "push" -> processPush(github.parseEventPayload(reader, GHEventPayload.Push.class));
+                case "pull_request" -> {
+                    GHEventPayload.PullRequest payload = github.parseEventPayload(reader, GHEventPayload.PullRequest.class);
+                    processPullRequest(payload.getRepository(), payload.getPullRequest());
+                }
+                case "pull_request_review" -> {
+                    GHEventPayload.PullRequestReview payload = 
+                            github.parseEventPayload(reader, GHEventPayload.PullRequestReview.class);
+                    processPullRequest(payload.getRepository(), payload.getPullRequest());
+                }
+                case "pull_request_review_comment" -> {
+                    GHEventPayload.PullRequestReviewComment payload = 
+                            github.parseEventPayload(reader, GHEventPayload.PullRequestReviewComment.class);
+                    processPullRequest(payload.getRepository(), payload.getPullRequest());
+                }
+                default -> logger.debug("Ignoring GitHub {} delivery", event);
+            }
+        }
+    }
+    
+    // Commits not marked distinct were already pushed to another branch, and so already ingested.
+    // The push payload lacks line counts, so each commit is read once to match the polled payload.
+    private void processPush(GHEventPayload.Push push) throws IOException {
+        if (push.isDeleted()) {
+            return;
+        }
+        
+        GHRepository repo = push.getRepository();
+        int commitCount = 0;
+        for (GHEventPayload.Push.PushCommit pushCommit : push.getCommits()) {
+            if (!pushCommit.isDistinct()) {
+                continue;
+            }
+            GHCommit commit = repo.getCommit(pushCommit.getSha());
+            connectorService.sendEventToIngestionApi(connectorService.createCommitEvent(repo, commit));
+            commitCount++;
+        }
+        
+        logger.info("Processed {} pushed commits for repository: {}", commitCount, repo.getFullName());
+    }
+    
+    private void processPullRequest(GHRepository repo, GHPullRequest pr) throws IOException {
+        connectorService.sendEventToIngestionApi(connectorService.createPullRequestEvent(repo, pr));
+        logger.debug("Processed pull request {} for repository: {}", pr.getNumber(), repo.getFullName());
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("GitHub webhook deliveries still processing at shutdown; the next reconciliation sync covers them");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.synapse.github.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// Repository analyses by repository name. Fresh for ttl-seconds; for stale-seconds after that the
+// cached analysis is still served while one background refresh replaces it, so only a cold or long
+// expired entry makes a request wait. Concurrent loads of the same repository share one computation,
+// and analyses that failed are not cached.
+@Component
+public class RepositoryAnalysisCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryAnalysisCache.class);
+    
+    @Value("${github.analysis.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    @Value("${github.analysis.cache.stale-seconds:3600}")
+    private long staleSeconds;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Map<String, Object>>> loads = new ConcurrentHashMap<>();
+    private final ExecutorService executor = 
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("github-analysis-", 0).factory());
+    
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    
+    public RepositoryAnalysisCache(MeterRegistry meterRegistry) {
+        this.hits = requests(meterRegistry, "hit", "Repository analyses served fresh from the cache");
+        this.staleHits = requests(meterRegistry, "stale", "Repository analyses served stale while being refreshed");
+        this.misses = requests(meterRegistry, "miss", "Repository analyses computed while the request waited");
+    }
+    
+    public Map<String, Object> get(String repository, Function<String, Map<String, Object>> loader) {
+        Entry entry = entries.get(repository);
+        long ageMillis = entry != null ? System.currentTimeMillis() - entry.loadedAtMillis() : Long.MAX_VALUE;
+        
+        if (ageMillis <= ttlSeconds * 1000) {
+            hits.increment();
+            return entry.analysis();
+        }
+        if (ageMillis <= (ttlSeconds + staleSeconds) * 1000) {
+            staleHits.increment();
+            load(repository, loader);
+            return entry.analysis();
+        }
+        
+        misses.increment();
+        return load(repository, loader).join();
+    }
+    
+    private CompletableFuture<Map<String, Object>> load(String repository, Function<String, Map<String, Object>> loader) {
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> running = loads.putIfAbsent(repository, created);
+        if (running != null) {
+            return running;
+        }
+        
+        executor.execute(() -> {
+            try {
+                Map<String, Object> analysis = loader.apply(repository);
+                if (!analysis.containsKey("error")) {
+                    entries.put(repository, new Entry(analysis, System.currentTimeMillis()));
+                }
+                created.complete(analysis);
+            } catch (Exception e) {
+                logger.error("Failed to refresh analysis for repository: {}", repository, e);
+                created.completeExceptionally(e);
+            } finally {
+                loads.remove(repository, created);
+            }
+        });
+        return created;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private static Counter requests(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("synapse.github.analysis.cache.requests")
+                .description(description)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    private record Entry(Map<String, Object> analysis, long loadedAtMillis) {
+    }
+}
\ No newline at end of file
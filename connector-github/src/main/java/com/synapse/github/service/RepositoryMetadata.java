@@ -0,0 +1,38 @@
+package com.synapse.github.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.kohsuke.github.GHRepository;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Objects;
+
+// The repository fields carried by repository-metadata events. updatedAt is GitHub's last update of the
+// repository and stamps the event, so re-sending unchanged metadata yields an identical event.
+public record RepositoryMetadata(String repository, String description, String language, 
+                                 int stars, int forks, String url, Instant updatedAt) {
+    
+    // Read from fields the repository listing already returned, without further API calls
+    static RepositoryMetadata of(GHRepository repo) throws IOException {
+        return new RepositoryMetadata(repo.getFullName(), repo.getDescription(), repo.getLanguage(), 
+                                      repo.getStargazersCount(), repo.getForksCount(), repo.getHtmlUrl().toString(), 
+                                      repo.getUpdatedAt().toInstant());
+    }
+    
+    static RepositoryMetadata of(JsonNode repo) {
+        JsonNode description = repo.path("description");
+        JsonNode language = repo.path("primaryLanguage").path("name");
+        return new RepositoryMetadata(repo.path("nameWithOwner").asText(), 
+                                      description.isTextual() ? description.asText() : null, 
+                                      language.isTextual() ? language.asText() : null, 
+                                      repo.path("stargazerCount").asInt(), repo.path("forkCount").asInt(), 
+                                      repo.path("url").asText(), Instant.parse(repo.path("updatedAt").asText()));
+    }
+    
+    // Compares the fields sent in the event; updatedAt also moves on pushes, which change none of them
+    boolean sameFieldsAs(RepositoryMetadata other) {
+        return Objects.equals(repository, other.repository) && Objects.equals(description, other.description) 
+                && Objects.equals(language, other.language) && stars == other.stars && forks == other.forks 
+                && Objects.equals(url, other.url);
+    }
+}
\ No newline at end of file
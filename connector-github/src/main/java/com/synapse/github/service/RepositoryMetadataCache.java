@@ -0,0 +1,52 @@
+package com.synapse.github.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Last seen metadata per repository. Metadata is re-read once its entry is older than the TTL,
+// and a repository-metadata event is only due when the re-read values differ from the cached ones,
+// so commit and pull request events just reference the repository by name.
+@Component
+public class RepositoryMetadataCache {
+    
+    @Value("${github.metadata.ttl-seconds:3600}")
+    private long ttlSeconds;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter changes;
+    
+    public RepositoryMetadataCache(MeterRegistry meterRegistry) {
+        this.changes = Counter.builder("synapse.github.repository.metadata.changes")
+                .description("Repository metadata changes detected, each sent as a repository-metadata event")
+                .register(meterRegistry);
+    }
+    
+    // True when the repository's metadata has never been read or was read longer than the TTL ago
+    public boolean isStale(String repository) {
+        Entry entry = entries.get(repository);
+        return entry == null || System.currentTimeMillis() - entry.checkedAtMillis() > ttlSeconds * 1000;
+    }
+    
+    // Records freshly read metadata and returns whether it differs from what was cached
+    public boolean update(RepositoryMetadata metadata) {
+        Entry previous = entries.put(metadata.repository(), new Entry(metadata, System.currentTimeMillis()));
+        boolean changed = previous == null || !previous.metadata().sameFieldsAs(metadata);
+        if (changed) {
+            changes.increment();
+        }
+        return changed;
+    }
+    
+    // Forgets a repository, so its metadata is re-read and re-sent, e.g. after the event failed to send
+    public void invalidate(String repository) {
+        entries.remove(repository);
+    }
+    
+    private record Entry(RepositoryMetadata metadata, long checkedAtMillis) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.synapse.github.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.github.graphql.GitHubGraphQLClient;
+import com.synapse.github.graphql.GitHubGraphQLFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHCommit;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.RequestMatcher;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+// The GraphQL fetch mode must send the same events as the REST one. The same commit and pull request
+// are described once as GitHub's REST API returns them and once as a stubbed github.graphql.url does.
+class GitHubGraphQLPayloadTest {
+    
+    private static final String GRAPHQL_URL = "http://graphql.test/graphql";
+    
+    private static final String REST_REPOSITORY = """
+            {"id": 1, "name": "demo", "full_name": "octo/demo", "html_url": "https://github.com/octo/demo"}
+            """;
+    
+    private static final String REST_COMMIT = """
+            {
+              "sha": "abc123",
+              "html_url": "https://github.com/octo/demo/commit/abc123",
+              "commit": {
+                "message": "Fix the parser",
+                "author": {"name": "Ada", "email": "ada@example.com", "date": "2026-10-01T10:00:00Z"},
+                "committer": {"name": "Ada", "email": "ada@example.com", "date": "2026-10-01T10:05:00Z"}
+              },
+              "stats": {"additions": 5, "deletions": 1, "total": 6},
+              "files": [
+                {"filename": "a.txt", "additions": 3, "deletions": 1, "changes": 4},
+                {"filename": "b.txt", "additions": 2, "deletions": 0, "changes": 2}
+              ]
+            }
+            """;
+    
+    private static final String REST_PULL_REQUEST = """
+            {
+              "id": 10, "number": 7, "title": "Add feature", "body": "Details", "state": "closed",
+              "html_url": "https://github.com/octo/demo/pull/7",
+              "user": {"id": 5, "login": "ada"},
+              "head": {"ref": "feature"}, "base": {"ref": "main"},
+              "additions": 10, "deletions": 2, "changed_files": 3, "commits": 4,
+              "review_comments": 5, "comments": 6, "merged": true, "mergeable_state": "clean",
+              "created_at": "2026-09-30T08:00:00Z", "updated_at": "2026-10-02T08:00:00Z"
+            }
+            """;
+    
+    // The pull request has a second page of review threads, fetched in a follow-up query
+    private static final String GRAPHQL_ACTIVITY = """
+            {"data": {"r0": {
+              "nameWithOwner": "octo/demo", "name": "demo",
+              "defaultBranchRef": {"target": {"history": {
+                "pageInfo": {"hasNextPage": false, "endCursor": null},
+                "nodes": [{
+                  "oid": "abc123", "message": "Fix the parser", "url": "https://github.com/octo/demo/commit/abc123",
+                  "committedDate": "2026-10-01T10:05:00Z", "additions": 5, "deletions": 1, "changedFilesIfAvailable": 2,
+                  "author": {"name": "Ada", "email": "ada@example.com"}
+                }]
+              }}},
+              "pullRequests": {
+                "pageInfo": {"hasNextPage": false, "endCursor": null},
+                "nodes": [{
+                  "id": "PR_kwDOA", "number": 7, "title": "Add feature", "body": "Details", "state": "MERGED",
+                  "url": "https://github.com/octo/demo/pull/7",
+                  "createdAt": "2026-09-30T08:00:00Z", "updatedAt": "2026-10-02T08:00:00Z",
+                  "author": {"login": "ada"}, "headRefName": "feature", "baseRefName": "main",
+                  "additions": 10, "deletions": 2, "changedFiles": 3,
+                  "commits": {"totalCount": 4}, "comments": {"totalCount": 6},
+                  "reviewThreads": {
+                    "pageInfo": {"hasNextPage": true, "endCursor": "threads-1"},
+                    "nodes": [{"comments": {"totalCount": 2}}]
+                  }
+                }]
+              }
+            }}}
+            """;
+    
+    private static final String GRAPHQL_REVIEW_THREADS = """
+            {"data": {"r0": {"reviewThreads": {
+              "pageInfo": {"hasNextPage": false, "endCursor": "threads-2"},
+              "nodes": [{"comments": {"totalCount": 3}}]
+            }}}}
+            """;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private MockRestServiceServer server;
+    private GitHubGraphQLFetcher fetcher;
+    private GitHubConnectorService connectorService;
+    
+    @BeforeEach
+    void setUp() {
+        GitHubRateLimitScheduler rateLimitScheduler = new GitHubRateLimitScheduler(new SimpleMeterRegistry());
+        GitHubGraphQLClient client = new GitHubGraphQLClient(objectMapper, rateLimitScheduler);
+        ReflectionTestUtils.setField(client, "githubToken", "test-token");
+        ReflectionTestUtils.setField(client, "graphqlUrl", GRAPHQL_URL);
+        server = MockRestServiceServer.bindTo((RestTemplate) ReflectionTestUtils.getField(client, "restTemplate")).build();
+        
+        fetcher = new GitHubGraphQLFetcher(client, objectMapper);
+        // Only the event builders are exercised, which need nothing but the ObjectMapper
+        connectorService = new GitHubConnectorService(null, objectMapper, null, null, null, null, null, null, null,
+                                                      new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void graphqlEventsMatchRestEvents() throws Exception {
+        JsonNode stub = objectMapper.readTree(GRAPHQL_ACTIVITY).path("data").path("r0");
+        
+        HttpHeaders rateLimit = new HttpHeaders();
+        rateLimit.add("X-RateLimit-Limit", "5000");
+        rateLimit.add("X-RateLimit-Remaining", "4990");
+        rateLimit.add("X-RateLimit-Reset", Long.toString(Instant.now().plusSeconds(3600).getEpochSecond()));
+        
+        server.expect(requestTo(GRAPHQL_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().string(containsString("repository(owner: \\\"octo\\\"")))
+                .andExpect(selects("CommitFields", stub.path("defaultBranchRef").path("target").path("history").path("nodes").get(0)))
+                .andExpect(selects("PullRequestFields", stub.path("pullRequests").path("nodes").get(0)))
+                .andRespond(withSuccess(GRAPHQL_ACTIVITY, MediaType.APPLICATION_JSON).headers(rateLimit));
+        server.expect(requestTo(GRAPHQL_URL))
+                .andExpect(content().string(containsString("node(id: \\\"PR_kwDOA\\\")")))
+                .andExpect(content().string(containsString("after: \\\"threads-1\\\"")))
+                .andRespond(withSuccess(GRAPHQL_REVIEW_THREADS, MediaType.APPLICATION_JSON));
+        
+        Map<String, GitHubGraphQLFetcher.RepositoryActivity> activities = fetcher.fetch(
+                Map.of("octo/demo", Date.from(Instant.parse("2026-09-01T00:00:00Z"))), Set.of());
+        server.verify();
+        
+        GitHubGraphQLFetcher.RepositoryActivity activity = activities.get("octo/demo");
+        assertThat(activity.commits()).hasSize(1);
+        assertThat(activity.pullRequests()).hasSize(1);
+        
+        GHRepository repository = GitHub.getMappingObjectReader().forType(GHRepository.class).readValue(REST_REPOSITORY);
+        GHCommit commit = GitHub.getMappingObjectReader().forType(GHCommit.class).readValue(REST_COMMIT);
+        GHPullRequest pullRequest = GitHub.getMappingObjectReader().forType(GHPullRequest.class).readValue(REST_PULL_REQUEST);
+        
+        assertSameEvent(connectorService.createCommitEvent(activity.repository(), activity.commits().get(0)),
+                        connectorService.createCommitEvent(repository, commit));
+        // reviewComments adds up the threads from both pages
+        assertSameEvent(connectorService.createPullRequestEvent(activity.repository(), activity.pullRequests().get(0)),
+                        connectorService.createPullRequestEvent(repository, pullRequest));
+    }
+    
+    // Every field of the stubbed node must be selected by the fragment in the query sent, so the stub
+    // cannot hand the code a field the real API would leave out
+    private RequestMatcher selects(String fragment, JsonNode stubNode) {
+        return request -> {
+            String query = objectMapper.readTree(((MockClientHttpRequest) request).getBodyAsString()).path("query").asText();
+            int start = query.indexOf("fragment " + fragment + " ");
+            assertThat(start).as("fragment %s in the query", fragment).isNotNegative();
+            int end = query.indexOf("fragment ", start + 1);
+            String selection = query.substring(start, end < 0 ? query.length() : end);
+            stubNode.fieldNames().forEachRemaining(field -> 
+                    assertThat(selection).as("%s selects %s", fragment, field).containsPattern("\\b" + field + "\\b"));
+        };
+    }
+    
+    private static void assertSameEvent(SynapseEvent graphql, SynapseEvent rest) {
+        assertThat(graphql.sourceEntityId()).isEqualTo(rest.sourceEntityId());
+        assertThat(graphql.eventType()).isEqualTo(rest.eventType());
+        assertThat(graphql.timestamp()).isEqualTo(rest.timestamp());
+        assertThat(graphql.payload()).isEqualTo(rest.payload());
+    }
+}
\ No newline at end of file
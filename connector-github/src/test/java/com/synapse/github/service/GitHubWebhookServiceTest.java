@@ -0,0 +1,181 @@
+package com.synapse.github.service;
+
+import com.synapse.github.controller.GitHubWebhookController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Deliveries go through the controller to the service; payloads are parsed by an offline GitHub
+// client and the events they produce are checked on a mocked connector service.
+class GitHubWebhookServiceTest {
+    
+    private static final String SECRET = "webhook-secret";
+    
+    private static final String PULL_REQUEST = """
+            {
+              "action": "opened",
+              "number": 7,
+              "pull_request": {"id": 70, "number": 7, "title": "Add feature", "state": "open"},
+              "repository": {"id": 1, "name": "demo", "full_name": "octo/demo"}
+            }
+            """;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GitHubConnectorService connectorService;
+    private GitHubWebhookService webhookService;
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        connectorService = mock(GitHubConnectorService.class);
+        when(connectorService.github()).thenReturn(GitHub.offline());
+        
+        webhookService = new GitHubWebhookService(connectorService, meterRegistry, 16);
+        ReflectionTestUtils.setField(webhookService, "secret", SECRET);
+        mockMvc = MockMvcBuilders.standaloneSetup(new GitHubWebhookController(webhookService)).build();
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        webhookService.shutdown();
+    }
+    
+    @Test
+    void signedDeliveryIsAcceptedAndProcessed() throws Exception {
+        deliver("pull_request", "d-1", PULL_REQUEST, sign(PULL_REQUEST, SECRET))
+                .andExpect(status().isAccepted());
+        
+        verify(connectorService, timeout(5000)).sendEventToIngestionApi(any());
+        verify(connectorService).createPullRequestEvent(any(GHRepository.class), any(GHPullRequest.class));
+        assertThat(deliveries("pull_request", "accepted")).isEqualTo(1);
+    }
+    
+    @Test
+    void badSignaturesAreRejectedBeforeAnythingIsProcessed() throws Exception {
+        String[] signatures = {
+                null,
+                sign(PULL_REQUEST, "other-secret"),
+                sign(PULL_REQUEST + " ", SECRET),
+                "sha256=not-hex",
+                sign(PULL_REQUEST, SECRET).substring("sha256=".length())
+        };
+        for (String signature : signatures) {
+            deliver("pull_request", "d-1", PULL_REQUEST, signature)
+                    .andExpect(status().isUnauthorized());
+        }
+        
+        assertThat(deliveries("pull_request", "rejected")).isEqualTo(signatures.length);
+        verify(connectorService, never()).github();
+        
+        // The rejected attempts did not use up the delivery ID
+        deliver("pull_request", "d-1", PULL_REQUEST, sign(PULL_REQUEST, SECRET))
+                .andExpect(status().isAccepted());
+    }
+    
+    @Test
+    void redeliveryOfTheSameDeliveryIdIsProcessedOnce() throws Exception {
+        String signature = sign(PULL_REQUEST, SECRET);
+        deliver("pull_request", "d-1", PULL_REQUEST, signature).andExpect(status().isAccepted());
+        verify(connectorService, timeout(5000)).sendEventToIngestionApi(any());
+        
+        deliver("pull_request", "d-1", PULL_REQUEST, signature)
+                .andExpect(status().isOk())
+                .andExpect(content().string("Delivery already received"));
+        deliver("pull_request", "d-2", PULL_REQUEST, signature).andExpect(status().isAccepted());
+        
+        verify(connectorService, after(200).times(2)).sendEventToIngestionApi(any());
+        assertThat(deliveries("pull_request", "redelivered")).isEqualTo(1);
+    }
+    
+    @Test
+    void failedDeliveryCanBeRedelivered() throws Exception {
+        when(connectorService.createPullRequestEvent(any(GHRepository.class), any(GHPullRequest.class)))
+                .thenThrow(new IllegalStateException("Ingestion API unavailable"))
+                .thenReturn(null);
+        String signature = sign(PULL_REQUEST, SECRET);
+        
+        deliver("pull_request", "d-1", PULL_REQUEST, signature).andExpect(status().isAccepted());
+        // The failure is counted once the delivery ID has been forgotten
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (deliveries("pull_request", "failed") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(deliveries("pull_request", "failed")).isEqualTo(1);
+        
+        deliver("pull_request", "d-1", PULL_REQUEST, signature).andExpect(status().isAccepted());
+        verify(connectorService, timeout(5000)).sendEventToIngestionApi(any());
+    }
+    
+    @Test
+    void deliveriesAreRefusedWithoutASecret() throws Exception {
+        ReflectionTestUtils.setField(webhookService, "secret", "");
+        
+        deliver("pull_request", "d-1", PULL_REQUEST, sign(PULL_REQUEST, SECRET))
+                .andExpect(status().isServiceUnavailable());
+        assertThat(webhookService.verifySignature(PULL_REQUEST.getBytes(StandardCharsets.UTF_8),
+                                                  sign(PULL_REQUEST, SECRET))).isFalse();
+    }
+    
+    @Test
+    void unsupportedEventsAreCountedAsOther() throws Exception {
+        String body = "{\"zen\": \"Keep it logically awesome.\"}";
+        deliver("ping", "d-1", body, sign(body, SECRET)).andExpect(status().isOk());
+        deliver("x-forged-" + "a".repeat(40), "d-2", body, sign(body, SECRET)).andExpect(status().isOk());
+        
+        assertThat(deliveries("other", "ignored")).isEqualTo(1);
+        verify(connectorService, never()).github();
+    }
+    
+    private ResultActions deliver(String event, String deliveryId, String body, String signature) throws Exception {
+        var request = post("/api/v1/github/webhook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-GitHub-Event", event)
+                .header("X-GitHub-Delivery", deliveryId)
+                .content(body);
+        if (signature != null) {
+            request.header("X-Hub-Signature-256", signature);
+        }
+        return mockMvc.perform(request);
+    }
+    
+    private double deliveries(String event, String outcome) {
+        var counter = meterRegistry.find("synapse.github.webhook.deliveries")
+                .tag("event", event)
+                .tag("outcome", outcome)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+    
+    private static String sign(String body, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
\ No newline at end of file
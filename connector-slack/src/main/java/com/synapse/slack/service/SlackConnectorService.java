@@ -10,6 +10,7 @@ import com.slack.api.model.Message;
 import com.synapse.core.SynapseEvent;
 import com.synapse.core.constants.EventType;
 import com.synapse.core.constants.SourceSystem;
+import com.synapse.core.json.WireFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +24,7 @@ import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,6 +42,13 @@ public class SlackConnectorService {
     @Value("${synapse.ingestion-api.url}")
     private String ingestionApiUrl;
     
+    // Pages of 100 messages read per fetch, so a server that keeps returning a cursor cannot hold it forever
+    @Value("${slack.sync.max-pages:20}")
+    private int maxPages;
+    
+    @Value("${synapse.ingestion-api.wire-format:json}")
+    private WireFormat wireFormat;
+    
     private final Slack slack;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
@@ -47,6 +56,9 @@ public class SlackConnectorService {
     
     private String lastMessageTimestamp;
     
+    // Upper end of the history read while catching up on more messages than fit in maxPages; null reads up to now
+    private String catchUpLatest;
+    
     public SlackConnectorService(RestTemplate restTemplate, ObjectMapper objectMapper, 
                                 SlackSyncStateService syncStateService) {
         this.slack = Slack.getInstance();
@@ -63,20 +75,44 @@ public class SlackConnectorService {
             // Get the last sync timestamp to avoid duplicates
             String lastTimestamp = syncStateService.getLastSyncTimestamp(channelId);
             
-            // Fetch conversation history
-            var response = slack.methods(slackBotToken).conversationsHistory(req -> req
-                    .channel(channelId)
-                    .oldest(lastTimestamp)
-                    .limit(100)
-                    .inclusive(false) // Don't include the last message we already processed
-            );
-            
-            if (!response.isOk()) {
-                logger.error("Failed to fetch Slack messages: {}", response.getError());
+            // Fetch conversation history. Slack returns the newest messages first, so every page
+            // after the oldest checkpoint is read before anything is sent
+            List<Message> messages = new ArrayList<>();
+            String latest = catchUpLatest;
+            String cursor = null;
+            int pages = 0;
+            do {
+                String pageCursor = cursor;
+                var response = slack.methods(slackBotToken).conversationsHistory(req -> req
+                        .channel(channelId)
+                        .oldest(lastTimestamp)
+                        .latest(latest)
+                        .limit(100)
+                        .cursor(pageCursor)
+                        .inclusive(false) // Don't include the last message we already processed
+                );
+                
+                if (!response.isOk()) {
+                    logger.error("Failed to fetch Slack messages: {}", response.getError());
+                    return;
+                }
+                
+                messages.addAll(response.getMessages());
+                pages++;
+                cursor = response.isHasMore() && response.getResponseMetadata() != null
+                        ? response.getResponseMetadata().getNextCursor() : null;
+            } while (cursor != null && !cursor.isEmpty() && pages < maxPages);
+            
+            if (cursor != null && !cursor.isEmpty() && !messages.isEmpty()) {
+                // Pages run newest to oldest, so the messages right after the checkpoint are the ones not
+                // read yet, and sending what was read would move the checkpoint past them. The next fetch
+                // reads only what is older than the oldest message read here, working back to the checkpoint.
+                catchUpLatest = messages.get(messages.size() - 1).getTs();
+                logger.warn("Channel {} has more than {} pages of new messages, next fetch reads those before {}",
+                           channelId, maxPages, catchUpLatest);
                 return;
             }
             
-            List<Message> messages = response.getMessages();
             if (messages.isEmpty()) {
                 logger.debug("No new messages found in channel: {}", channelId);
                 return;
@@ -86,8 +122,10 @@ public class SlackConnectorService {
             
             String latestTimestamp = null;
             int processedCount = 0;
+            boolean failed = false;
             
-            // Process messages in reverse order (oldest first)
+            // Process messages in reverse order (oldest first), stopping at the first failure so the
+            // checkpoint never moves past a message that was not sent; the next fetch retries it
             for (int i = messages.size() - 1; i >= 0; i--) {
                 Message message = messages.get(i);
                 
@@ -99,10 +137,17 @@ public class SlackConnectorService {
                     processedCount++;
                     
                 } catch (Exception e) {
-                    logger.error("Failed to process message: {}", message.getTs(), e);
+                    logger.error("Failed to process message: {}, holding the checkpoint before it", message.getTs(), e);
+                    failed = true;
+                    break;
                 }
             }
             
+            // Everything up to the catch-up bound is sent, so the next fetch reads up to now again
+            if (!failed) {
+                catchUpLatest = null;
+            }
+            
             // Update sync state with the latest timestamp
             if (latestTimestamp != null) {
                 syncStateService.updateLastSyncTimestamp(channelId, latestTimestamp);
@@ -150,7 +195,7 @@ public class SlackConnectorService {
                     .version(1)
                     .payload(payload)
                     .build();
-                    
+            
         } catch (Exception e) {
             logger.error("Failed to create SynapseEvent from Slack message: {}", message.getTs(), e);
             throw new RuntimeException("Failed to create SynapseEvent", e);
@@ -160,7 +205,7 @@ public class SlackConnectorService {
     private void sendEventToIngestionApi(SynapseEvent event) {
         try {
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentType(MediaType.parseMediaType(wireFormat.contentType()));
             
             HttpEntity<SynapseEvent> request = new HttpEntity<>(event, headers);
             
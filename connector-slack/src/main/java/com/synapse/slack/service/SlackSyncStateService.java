@@ -1,40 +1,73 @@
 package com.synapse.slack.service;
 
+import com.synapse.core.constants.SourceSystem;
+import com.synapse.core.sync.ConnectorCheckpointStore;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.concurrent.ConcurrentHashMap;
 
+// Per-channel checkpoints, kept in connector_sync_state by the shared ConnectorCheckpointStore. The
+// ts of the last processed message is kept as last_processed_id, since Slack pages by it exactly;
+// updates are written to the table in one batch every flush interval and on shutdown.
 @Service
 public class SlackSyncStateService {
     
     private static final Logger logger = LoggerFactory.getLogger(SlackSyncStateService.class);
     
-    // For MVP, we'll use in-memory storage. In production, this should be persisted to database
-    private final ConcurrentHashMap<String, String> syncState = new ConcurrentHashMap<>();
+    @Value("${slack.sync.initial-lookback-hours:24}")
+    private long initialLookbackHours;
+    
+    private final ConnectorCheckpointStore checkpoints;
+    
+    public SlackSyncStateService(JdbcTemplate jdbcTemplate) {
+        this.checkpoints = new ConnectorCheckpointStore(jdbcTemplate, SourceSystem.SLACK);
+    }
     
     public String getLastSyncTimestamp(String channelId) {
-        String lastTimestamp = syncState.get(channelId);
+        ConnectorCheckpointStore.Checkpoint checkpoint = checkpoints.load(channelId);
         
-        if (lastTimestamp == null) {
-            // First time running, start from 24 hours ago to avoid overwhelming initial load
-            Instant oneDayAgo = Instant.now().minus(24, ChronoUnit.HOURS);
-            lastTimestamp = String.valueOf(oneDayAgo.getEpochSecond());
-            
+        if (checkpoint == null) {
+            // First time running, start from the initial lookback to avoid overwhelming initial load
+            Instant start = Instant.now().minus(initialLookbackHours, ChronoUnit.HOURS);
             logger.info("No previous sync state found for channel: {}. Starting from: {}", 
-                       channelId, oneDayAgo);
-        } else {
-            logger.debug("Found previous sync timestamp for channel {}: {}", channelId, lastTimestamp);
+                       channelId, start);
+            return String.valueOf(start.getEpochSecond());
         }
         
+        // Rows without a message ts resume from the checkpoint time
+        String lastTimestamp = checkpoint.lastProcessedId() != null
+                ? checkpoint.lastProcessedId()
+                : String.valueOf(checkpoint.lastSyncTimestamp().getEpochSecond());
+        logger.debug("Found previous sync timestamp for channel {}: {}", channelId, lastTimestamp);
         return lastTimestamp;
     }
     
     public void updateLastSyncTimestamp(String channelId, String timestamp) {
-        syncState.put(channelId, timestamp);
-        logger.debug("Updated sync state for channel {}: {}", channelId, timestamp);
+        checkpoints.update(channelId, toInstant(timestamp), timestamp);
+    }
+    
+    @Scheduled(fixedDelayString = "${slack.sync.checkpoint-flush-interval-ms:5000}")
+    public void flush() {
+        checkpoints.flush();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        checkpoints.flush();
+    }
+    
+    // Slack ts values are epoch seconds with a microsecond fraction, e.g. 1712345678.000200
+    private static Instant toInstant(String ts) {
+        BigDecimal seconds = new BigDecimal(ts);
+        long micros = seconds.remainder(BigDecimal.ONE).movePointRight(6).longValue();
+        return Instant.ofEpochSecond(seconds.longValue(), micros * 1000);
     }
 }
\ No newline at end of file
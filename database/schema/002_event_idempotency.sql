@@ -0,0 +1,16 @@
+-- Idempotent ingestion: the same content for the same source entity is stored once.
+-- Connectors re-send unchanged PRs and messages with a fresh event_id on every sync,
+-- so event_id alone cannot catch them.
+ALTER TABLE events
+    ADD COLUMN content_hash TEXT GENERATED ALWAYS AS (md5(payload::text)) STORED;
+
+-- Keep the first copy of anything that was ingested twice before this migration
+DELETE FROM events e
+USING events d
+WHERE e.source_system = d.source_system
+  AND e.source_entity_id = d.source_entity_id
+  AND e.content_hash = d.content_hash
+  AND e.id > d.id;
+
+CREATE UNIQUE INDEX idx_events_source_entity_content
+    ON events(source_system, source_entity_id, content_hash);
\ No newline at end of file
@@ -0,0 +1,108 @@
+-- Range-partition events by month on event_timestamp.
+-- Each partition carries its own (smaller) indexes, expired months can be detached or dropped
+-- instead of deleted row by row, and queries filtered on event_timestamp only touch the
+-- partitions they need (partition pruning).
+
+-- Unique keys on a partitioned table must include the partition key, so event_id alone can no
+-- longer be referenced by foreign keys. Dependent rows are cleaned up by the partition manager
+-- when a partition expires.
+ALTER TABLE document_chunks DROP CONSTRAINT IF EXISTS document_chunks_source_event_id_fkey;
+ALTER TABLE event_processing_state DROP CONSTRAINT IF EXISTS event_processing_state_event_id_fkey;
+
+-- Keep the id sequence while the old table is replaced
+ALTER SEQUENCE events_id_seq OWNED BY NONE;
+
+ALTER TABLE events RENAME TO events_unpartitioned;
+ALTER INDEX events_pkey RENAME TO events_unpartitioned_pkey;
+ALTER INDEX events_event_id_key RENAME TO events_unpartitioned_event_id_key;
+DROP INDEX idx_events_source_system;
+DROP INDEX idx_events_event_type;
+DROP INDEX idx_events_event_timestamp;
+DROP INDEX idx_events_correlation_id;
+DROP INDEX idx_events_created_at;
+DROP INDEX idx_events_payload_gin;
+DROP INDEX idx_events_source_entity_content;
+
+CREATE TABLE events (
+    id BIGINT NOT NULL DEFAULT nextval('events_id_seq'),
+    event_id UUID NOT NULL,
+    correlation_id UUID,
+    source_system VARCHAR(50) NOT NULL,
+    source_entity_id VARCHAR(255) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    event_timestamp TIMESTAMPTZ NOT NULL,
+    version INT NOT NULL DEFAULT 1,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    content_hash TEXT GENERATED ALWAYS AS (md5(payload::text)) STORED,
+    PRIMARY KEY (id, event_timestamp)
+) PARTITION BY RANGE (event_timestamp);
+
+-- Catches events outside every monthly partition so inserts never fail on a missing range
+CREATE TABLE events_default PARTITION OF events DEFAULT;
+
+-- Creates the monthly partition events_pYYYYMM covering [p_month, p_month + 1 month) in UTC.
+-- Returns false if it already exists, or if events_default already holds rows for that month
+-- (attaching would fail; those rows stay in the default partition).
+CREATE OR REPLACE FUNCTION create_events_partition(p_month DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    month_start TIMESTAMPTZ := date_trunc('month', p_month::timestamp) AT TIME ZONE 'UTC';
+    month_end TIMESTAMPTZ := (date_trunc('month', p_month::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+    partition_name TEXT := 'events_p' || to_char(p_month, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM events_default
+               WHERE event_timestamp >= month_start AND event_timestamp < month_end) THEN
+        RAISE NOTICE 'events_default holds rows for %, not creating %', p_month, partition_name;
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF events FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, month_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for the existing data plus the next three months
+DO $$
+DECLARE
+    first_month DATE;
+    partition_month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(event_timestamp), NOW()) AT TIME ZONE 'UTC')::date
+    INTO first_month
+    FROM events_unpartitioned;
+
+    partition_month := first_month;
+    WHILE partition_month <= (date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date LOOP
+        PERFORM create_events_partition(partition_month);
+        partition_month := (partition_month + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO events (
+    id, event_id, correlation_id, source_system, source_entity_id,
+    event_type, event_timestamp, version, payload, created_at
+)
+SELECT id, event_id, correlation_id, source_system, source_entity_id,
+       event_type, event_timestamp, version, payload, created_at
+FROM events_unpartitioned;
+
+DROP TABLE events_unpartitioned;
+ALTER SEQUENCE events_id_seq OWNED BY events.id;
+
+-- Defined on the parent, created on every partition
+ALTER TABLE events ADD CONSTRAINT events_event_id_key UNIQUE (event_id, event_timestamp);
+CREATE UNIQUE INDEX idx_events_source_entity_content
+    ON events(source_system, source_entity_id, content_hash, event_timestamp);
+
+CREATE INDEX idx_events_source_system ON events(source_system);
+CREATE INDEX idx_events_event_type ON events(event_type);
+CREATE INDEX idx_events_event_timestamp ON events(event_timestamp);
+CREATE INDEX idx_events_correlation_id ON events(correlation_id) WHERE correlation_id IS NOT NULL;
+CREATE INDEX idx_events_created_at ON events(created_at);
+CREATE INDEX idx_events_payload_gin ON events USING GIN(payload);
\ No newline at end of file
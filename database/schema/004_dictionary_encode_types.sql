@@ -0,0 +1,70 @@
+-- Store source_system and event_type as SMALLINT codes into two lookup tables instead of
+-- repeating the strings in every row and in both B-tree indexes. The ingestion API caches the
+-- codes and adds a lookup row the first time it sees a new value.
+CREATE TABLE source_systems (
+    id SMALLSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE event_types (
+    id SMALLSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE
+);
+
+-- Values from SourceSystem and EventType, plus anything already stored
+INSERT INTO source_systems (name)
+VALUES ('SLACK'), ('JIRA'), ('GITHUB'), ('CONFLUENCE');
+
+INSERT INTO event_types (name)
+VALUES ('SlackMessagePostedEvent'), ('JiraTicketCreatedEvent'), ('JiraTicketCommentAddedEvent'),
+       ('GitHubCommitPushedEvent'), ('GitHubPullRequestOpenedEvent'),
+       ('ConfluencePageCreatedEvent'), ('ConfluencePageUpdatedEvent');
+
+INSERT INTO source_systems (name)
+SELECT DISTINCT source_system FROM events
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO event_types (name)
+SELECT DISTINCT event_type FROM events
+ON CONFLICT (name) DO NOTHING;
+
+ALTER TABLE events
+    ADD COLUMN source_system_id SMALLINT,
+    ADD COLUMN event_type_id SMALLINT;
+
+-- Rewrites every row; on a large table run this per partition in a maintenance window
+UPDATE events e
+SET source_system_id = s.id,
+    event_type_id = t.id
+FROM source_systems s, event_types t
+WHERE s.name = e.source_system
+  AND t.name = e.event_type;
+
+ALTER TABLE events
+    ALTER COLUMN source_system_id SET NOT NULL,
+    ALTER COLUMN event_type_id SET NOT NULL,
+    ADD CONSTRAINT events_source_system_id_fkey FOREIGN KEY (source_system_id) REFERENCES source_systems(id),
+    ADD CONSTRAINT events_event_type_id_fkey FOREIGN KEY (event_type_id) REFERENCES event_types(id);
+
+DROP INDEX idx_events_source_entity_content;
+DROP INDEX idx_events_source_system;
+DROP INDEX idx_events_event_type;
+
+-- Dropped columns keep their space in existing rows until those are rewritten
+-- (VACUUM FULL per partition); rows written from now on no longer carry the strings
+ALTER TABLE events
+    DROP COLUMN source_system,
+    DROP COLUMN event_type;
+
+CREATE UNIQUE INDEX idx_events_source_entity_content
+    ON events(source_system_id, source_entity_id, content_hash, event_timestamp);
+CREATE INDEX idx_events_source_system ON events(source_system_id);
+CREATE INDEX idx_events_event_type ON events(event_type_id);
+
+-- The events columns as they were before, for queries and tools that read the names
+CREATE VIEW events_decoded AS
+SELECT e.id, e.event_id, e.correlation_id, s.name AS source_system, e.source_entity_id,
+       t.name AS event_type, e.event_timestamp, e.version, e.payload, e.created_at, e.content_hash
+FROM events e
+JOIN source_systems s ON s.id = e.source_system_id
+JOIN event_types t ON t.id = e.event_type_id;
\ No newline at end of file
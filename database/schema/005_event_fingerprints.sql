@@ -0,0 +1,18 @@
+-- Idempotency key for events, kept outside the partitioned table. Unique indexes on events must
+-- include event_timestamp, so there the same content re-sent with a new timestamp (every client
+-- that leaves timestamp unset) would be a new row. Inserts into events go through this table in
+-- the same statement and only write the event if its fingerprint was new.
+CREATE TABLE event_fingerprints (
+    source_system_id SMALLINT NOT NULL REFERENCES source_systems(id),
+    source_entity_id VARCHAR(255) NOT NULL,
+    content_hash TEXT NOT NULL,
+    PRIMARY KEY (source_system_id, source_entity_id, content_hash)
+);
+
+-- Content stored more than once since partitioning keeps its copies; only new inserts are deduplicated
+INSERT INTO event_fingerprints (source_system_id, source_entity_id, content_hash)
+SELECT DISTINCT source_system_id, source_entity_id, content_hash
+FROM events;
+
+-- Superseded by event_fingerprints
+DROP INDEX idx_events_source_entity_content;
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.synapse.ingestion;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class IngestionApiApplication {
     public static void main(String[] args) {
         SpringApplication.run(IngestionApiApplication.class, args);
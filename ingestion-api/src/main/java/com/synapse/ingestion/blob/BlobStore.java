@@ -0,0 +1,169 @@
+package com.synapse.ingestion.blob;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Content-addressed blobs on the local filesystem: a blob is stored once under its SHA-256,
+// at <directory>/ab/cd/abcd..., so identical content written twice takes the space of one.
+// Blobs are immutable; a blob whose event insert rolled back is left behind unreferenced. Blobs
+// of expired events are deleted with their partition, see EventPartitionRepository.
+@Component
+public class BlobStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
+    
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    
+    private final Path root;
+    private final Counter writtenBlobs;
+    private final Counter writtenBytes;
+    private final Counter deduplicatedBlobs;
+    
+    public BlobStore(@Value("${synapse.ingestion.blob.directory:data/blobs}") String directory, 
+                     MeterRegistry meterRegistry) {
+        this.root = Paths.get(directory).toAbsolutePath();
+        this.writtenBlobs = Counter.builder("synapse.ingestion.blob.written")
+                .description("New blobs written to the blob store")
+                .register(meterRegistry);
+        this.writtenBytes = Counter.builder("synapse.ingestion.blob.written.bytes")
+                .description("Bytes of new blobs written to the blob store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.deduplicatedBlobs = Counter.builder("synapse.ingestion.blob.deduplicated")
+                .description("Blob writes answered by an identical blob already in the store")
+                .register(meterRegistry);
+    }
+    
+    // Returns the hex SHA-256 the content is stored under; durable once this returns
+    public String put(byte[] content) {
+        String hash = sha256(content);
+        Path path = pathOf(hash);
+        if (Files.exists(path)) {
+            touch(path);
+            deduplicatedBlobs.increment();
+            return hash;
+        }
+        
+        try {
+            Path directory = path.getParent();
+            boolean newDirectory = Files.notExists(directory);
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, hash, ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(content);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+                // An atomic rename replaces an existing file instead of failing, so a blob written
+                // concurrently by another request has to be checked for here; the content is the
+                // same by definition, so losing the remaining race only rewrites identical bytes
+                if (Files.exists(path)) {
+                    touch(path);
+                    deduplicatedBlobs.increment();
+                    return hash;
+                }
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            
+            // The rename is only durable once the directory holding the new entry is synced,
+            // as are the entries of any directories created for it
+            forceDirectory(directory);
+            if (newDirectory) {
+                forceDirectory(directory.getParent());
+                forceDirectory(root);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write blob " + hash, e);
+        }
+        
+        writtenBlobs.increment();
+        writtenBytes.increment(content.length);
+        logger.debug("Stored blob {} ({} bytes)", hash, content.length);
+        return hash;
+    }
+    
+    public Path pathOf(String hash) {
+        if (!isValidHash(hash)) {
+            throw new IllegalArgumentException("Not a SHA-256 blob hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+    
+    public boolean exists(String hash) {
+        return isValidHash(hash) && Files.exists(pathOf(hash));
+    }
+    
+    public byte[] get(String hash) {
+        try {
+            return Files.readAllBytes(pathOf(hash));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read blob " + hash, e);
+        }
+    }
+    
+    // Deletes a blob that no event referenced as of since. A blob put() again after that has been
+    // referenced anew and is kept, since put() refreshes the modified time of a blob it reuses.
+    public boolean deleteIfUnusedSince(String hash, Instant since) {
+        Path path = pathOf(hash);
+        try {
+            if (!Files.exists(path) || Files.getLastModifiedTime(path).toInstant().isAfter(since)) {
+                return false;
+            }
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete blob {}", hash, e);
+            return false;
+        }
+    }
+    
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Failed to refresh the modified time of blob {}", path.getFileName(), e);
+        }
+    }
+    
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+    
+    public static boolean isValidHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+    
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
\ No newline at end of file
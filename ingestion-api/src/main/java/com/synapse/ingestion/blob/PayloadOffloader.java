@@ -0,0 +1,108 @@
+package com.synapse.ingestion.blob;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+// Moves payloads above threshold-bytes out of the events table into the blob store. The row keeps
+// a projection instead: the payload's top-level scalar fields, strings cut to projection-max-chars,
+// plus a "_blob" reference ({"sha256": ..., "size": ...}) to the full JSON. Readers that need the
+// whole payload fetch GET /api/v1/blobs/{sha256}, only when they need it.
+@Component
+public class PayloadOffloader {
+    
+    public static final String BLOB_FIELD = "_blob";
+    
+    @Value("${synapse.ingestion.blob.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${synapse.ingestion.blob.threshold-bytes:65536}")
+    private int thresholdBytes;
+    
+    @Value("${synapse.ingestion.blob.projection-max-chars:256}")
+    private int projectionMaxChars;
+    
+    private final BlobStore blobStore;
+    private final ObjectMapper objectMapper;
+    
+    public PayloadOffloader(BlobStore blobStore, ObjectMapper objectMapper) {
+        this.blobStore = blobStore;
+        this.objectMapper = objectMapper;
+    }
+    
+    // Returns the JSON to store in the events row: the payload itself, or its projection once the
+    // full payload is in the blob store
+    public String offload(String payloadJson) throws JsonProcessingException {
+        // Characters never exceed UTF-8 bytes, so short payloads skip the encoding entirely
+        if (!enabled || payloadJson.length() * 3L <= thresholdBytes) {
+            return payloadJson;
+        }
+        
+        byte[] content = payloadJson.getBytes(StandardCharsets.UTF_8);
+        if (content.length <= thresholdBytes) {
+            return payloadJson;
+        }
+        
+        String hash = blobStore.put(content);
+        return objectMapper.writeValueAsString(project(parse(content), hash, content.length));
+    }
+    
+    public byte[] offload(byte[] payloadJson) throws JsonProcessingException {
+        if (!enabled || payloadJson.length <= thresholdBytes) {
+            return payloadJson;
+        }
+        
+        String hash = blobStore.put(payloadJson);
+        return objectMapper.writeValueAsBytes(project(parse(payloadJson), hash, payloadJson.length));
+    }
+    
+    private JsonNode parse(byte[] json) throws JsonProcessingException {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // In-memory input, only parse errors are expected
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private ObjectNode project(JsonNode payload, String hash, int size) {
+        ObjectNode projection = objectMapper.createObjectNode();
+        ObjectNode reference = projection.putObject(BLOB_FIELD);
+        reference.put("sha256", hash);
+        reference.put("size", size);
+        
+        if (payload.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = payload.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if (value.isTextual() && value.textValue().length() > projectionMaxChars) {
+                    projection.put(field.getKey(), truncate(value.textValue()));
+                } else if (value.isValueNode() && !BLOB_FIELD.equals(field.getKey())) {
+                    projection.set(field.getKey(), value);
+                }
+            }
+        }
+        return projection;
+    }
+    
+    private String truncate(String text) {
+        int end = projectionMaxChars;
+        // Never split a surrogate pair
+        if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.synapse.ingestion.cli;
+
+import com.synapse.core.dto.BulkLoadResponse;
+import com.synapse.ingestion.service.EventBulkLoadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Backfill from the command line:
+//   java -jar ingestion-api.jar --spring.main.web-application-type=none --bulk-load=events.ndjson
+@Component
+public class BulkLoadCommand implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BulkLoadCommand.class);
+    
+    private static final String OPTION = "bulk-load";
+    
+    private final EventBulkLoadService eventBulkLoadService;
+    private final ApplicationContext applicationContext;
+    
+    public BulkLoadCommand(EventBulkLoadService eventBulkLoadService, ApplicationContext applicationContext) {
+        this.eventBulkLoadService = eventBulkLoadService;
+        this.applicationContext = applicationContext;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        
+        List<String> files = args.getOptionValues(OPTION);
+        int exitCode = 0;
+        
+        for (String file : files) {
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(Path.of(file)))) {
+                logger.info("Bulk loading events from {}", file);
+                BulkLoadResponse response = eventBulkLoadService.load(input);
+                logger.info("Loaded {}: {} received, {} inserted, {} duplicates, {} rejected in {} ms", 
+                           file, response.received(), response.inserted(), response.duplicates(), 
+                           response.rejected(), response.durationMs());
+            } catch (Exception e) {
+                logger.error("Bulk load of {} failed", file, e);
+                exitCode = 1;
+            }
+        }
+        
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+}
\ No newline at end of file
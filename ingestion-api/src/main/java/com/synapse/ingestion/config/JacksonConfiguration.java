@@ -3,20 +3,41 @@ package com.synapse.ingestion.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.synapse.core.json.PayloadPassthroughModule;
+import com.synapse.core.json.WireFormat;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 @Configuration
 public class JacksonConfiguration {
     
     @Bean
     @Primary
-    public ObjectMapper objectMapper() {
+    public ObjectMapper objectMapper(@Value("${synapse.ingestion.payload.passthrough:false}") boolean payloadPassthrough) {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
+        if (payloadPassthrough) {
+            // Keep event payloads as the JSON text they arrived as; they are written to jsonb unchanged
+            mapper.registerModule(new PayloadPassthroughModule());
+        }
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
         return mapper;
     }
+    
+    // Binary request bodies (Content-Type application/x-jackson-smile or application/cbor) decode
+    // through the same configuration as JSON, including payload passthrough
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.mapper(objectMapper));
+    }
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.mapper(objectMapper));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.synapse.ingestion.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+    
+    // sourceSystem and eventType come from clients; cap their distinct values so a misbehaving
+    // sender cannot create an unbounded number of time series
+    @Bean
+    public MeterFilter ingestionTagCardinalityLimit(@Value("${synapse.ingestion.metrics.max-tag-values:200}") int maxTagValues) {
+        return MeterFilter.maximumAllowableTags("synapse.ingestion", "eventType", maxTagValues, MeterFilter.deny());
+    }
+    
+    @Bean
+    public MeterFilter ingestionSourceCardinalityLimit(@Value("${synapse.ingestion.metrics.max-tag-values:200}") int maxTagValues) {
+        return MeterFilter.maximumAllowableTags("synapse.ingestion", "sourceSystem", maxTagValues, MeterFilter.deny());
+    }
+}
\ No newline at end of file
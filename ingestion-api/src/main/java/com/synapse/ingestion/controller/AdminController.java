@@ -0,0 +1,37 @@
+package com.synapse.ingestion.controller;
+
+import com.synapse.core.dto.BulkLoadResponse;
+import com.synapse.ingestion.service.EventBulkLoadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    
+    private final EventBulkLoadService eventBulkLoadService;
+    
+    public AdminController(EventBulkLoadService eventBulkLoadService) {
+        this.eventBulkLoadService = eventBulkLoadService;
+    }
+    
+    // Body is newline-delimited SynapseEvent JSON, read straight from the request stream
+    @PostMapping(value = "/bulk-load", consumes = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<BulkLoadResponse> bulkLoad(HttpServletRequest request) {
+        logger.info("Bulk load requested");
+        
+        try {
+            BulkLoadResponse response = eventBulkLoadService.load(request.getInputStream());
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("Bulk load failed", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
\ No newline at end of file
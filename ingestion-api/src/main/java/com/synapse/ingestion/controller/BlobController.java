@@ -0,0 +1,40 @@
+package com.synapse.ingestion.controller;
+
+import com.synapse.ingestion.blob.BlobStore;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+// Full payloads of events whose row only holds a projection, see PayloadOffloader
+@RestController
+@RequestMapping("/api/v1/blobs")
+public class BlobController {
+    
+    private final BlobStore blobStore;
+    
+    public BlobController(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+    
+    @GetMapping("/{sha256}")
+    public ResponseEntity<Resource> getBlob(@PathVariable("sha256") String sha256) {
+        if (!BlobStore.isValidHash(sha256)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!blobStore.exists(sha256)) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        // Content-addressed, so a blob never changes under its hash
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(sha256)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .body(new FileSystemResource(blobStore.pathOf(sha256)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.synapse.ingestion.controller;
+
+import com.synapse.ingestion.metrics.LogSampler;
+import com.synapse.ingestion.service.IngestionAdmissionControl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+@Component
+public class IngestionAdmissionFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IngestionAdmissionFilter.class);
+    
+    // Only the endpoints that write events. NDJSON streams would hold a permit for the whole
+    // upload, and receipt lookups do not touch the connection pool.
+    private static final Set<String> ADMITTED_PATHS = Set.of("/api/v1/ingest", "/api/v1/ingest/batch", "/api/v1/ingest/async");
+    
+    @Value("${synapse.ingestion.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+    
+    private final IngestionAdmissionControl admissionControl;
+    
+    // Shed requests are counted by synapse.ingestion.admission.shed; logging each one would flood
+    // the log during exactly the overload being shed
+    private final LogSampler shedLogSampler = new LogSampler(1000);
+    
+    public IngestionAdmissionFilter(IngestionAdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || !ADMITTED_PATHS.contains(request.getRequestURI());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) 
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = admissionControl.tryAdmit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        
+        if (!admitted) {
+            if (shedLogSampler.sample()) {
+                logger.debug("Shed ingestion request: {} {}", request.getMethod(), request.getRequestURI());
+            }
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.getWriter().write("Ingestion is overloaded, retry later");
+            return;
+        }
+        
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admissionControl.release();
+        }
+    }
+}
\ No newline at end of file
@@ -1,46 +1,185 @@
 package com.synapse.ingestion.controller;
 
 import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.BatchIngestResponse;
+import com.synapse.core.dto.IngestReceipt;
+import com.synapse.core.dto.IngestResult;
+import com.synapse.core.dto.IngestStatus;
+import com.synapse.core.dto.StreamIngestResponse;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import com.synapse.ingestion.service.AsyncIngestionService;
 import com.synapse.ingestion.service.EventIngestionService;
-import jakarta.validation.Valid;
+import com.synapse.ingestion.service.EventStreamIngestionService;
+import com.synapse.ingestion.service.IngestionOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/v1")
 public class IngestionController {
     
     private static final Logger logger = LoggerFactory.getLogger(IngestionController.class);
     
+    @Value("${synapse.ingestion.batch.max-size:1000}")
+    private int maxBatchSize;
+    
     private final EventIngestionService eventIngestionService;
+    private final EventStreamIngestionService eventStreamIngestionService;
+    private final AsyncIngestionService asyncIngestionService;
+    private final IngestionMetrics ingestionMetrics;
     
-    public IngestionController(EventIngestionService eventIngestionService) {
+    public IngestionController(EventIngestionService eventIngestionService, 
+                               EventStreamIngestionService eventStreamIngestionService, 
+                               AsyncIngestionService asyncIngestionService, 
+                               IngestionMetrics ingestionMetrics) {
         this.eventIngestionService = eventIngestionService;
+        this.eventStreamIngestionService = eventStreamIngestionService;
+        this.asyncIngestionService = asyncIngestionService;
+        this.ingestionMetrics = ingestionMetrics;
     }
     
+    // Bean validation runs in the service, where it is timed along with the payload checks
     @PostMapping("/ingest")
-    public ResponseEntity<String> ingestEvent(@Valid @RequestBody SynapseEvent event) {
+    public ResponseEntity<String> ingestEvent(@RequestBody SynapseEvent event) {
+        long start = IngestionRequestBodyAdvice.bodyReadStart();
+        IngestStatus status = IngestStatus.FAILED;
         try {
             logger.debug("Received event for ingestion: {} from {}", 
                         event.eventType(), event.sourceSystem());
             
-            eventIngestionService.ingestEvent(event);
+            IngestResult result = eventIngestionService.ingestEvent(event);
+            status = result.status();
             
-            logger.info("Successfully ingested event: {} with ID: {}", 
-                       event.eventType(), event.eventId());
+            if (status == IngestStatus.DUPLICATE) {
+                return ResponseEntity.ok("Event already ingested (duplicate)");
+            }
+            if (status == IngestStatus.REJECTED) {
+                return ResponseEntity.badRequest().body("Invalid event: " + result.message());
+            }
+            if (status == IngestStatus.ACCEPTED) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body("Event accepted for ingestion");
+            }
             
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body("Event ingested successfully");
             
+        } catch (IngestionOverloadedException e) {
+            logger.warn("Rejected event: {} with ID: {}: {}", 
+                       event.eventType(), event.eventId(), e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Ingestion is overloaded, retry later");
+            
         } catch (Exception e) {
             logger.error("Failed to ingest event: {} with ID: {}", 
                         event.eventType(), event.eventId(), e);
             
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to ingest event: " + e.getMessage());
+        } finally {
+            ingestionMetrics.recordEndToEnd(event, status, System.nanoTime() - start);
+        }
+    }
+    
+    // Answers 202 as soon as the event is queued; the outcome is read back through its receipt.
+    // Invalid events are answered 400 here, since a receipt cannot tell the client anything more.
+    @PostMapping("/ingest/async")
+    public ResponseEntity<?> ingestEventAsync(@RequestBody SynapseEvent event) {
+        long start = IngestionRequestBodyAdvice.bodyReadStart();
+        String violations = eventIngestionService.validateEvent(event);
+        if (violations != null) {
+            ingestionMetrics.recordEndToEnd(event, IngestStatus.REJECTED, System.nanoTime() - start);
+            return ResponseEntity.badRequest().body("Invalid event: " + violations);
+        }
+        
+        try {
+            IngestReceipt receipt = asyncIngestionService.submit(event, start);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/ingest/receipts/" + receipt.receiptId()))
+                    .body(receipt);
+            
+        } catch (IngestionOverloadedException e) {
+            logger.warn("Rejected async event: {} with ID: {}: {}", 
+                       event.eventType(), event.eventId(), e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Ingestion is overloaded, retry later");
+        }
+    }
+    
+    @GetMapping("/ingest/receipts/{receiptId}")
+    public ResponseEntity<IngestReceipt> getReceipt(@PathVariable("receiptId") UUID receiptId) {
+        IngestReceipt receipt = asyncIngestionService.lookup(receiptId);
+        return receipt.state() == IngestReceipt.State.UNKNOWN 
+                ? ResponseEntity.notFound().build() 
+                : ResponseEntity.ok(receipt);
+    }
+    
+    // Bulk lookup; unknown receipt IDs come back with state UNKNOWN rather than failing the request
+    @PostMapping("/ingest/receipts")
+    public ResponseEntity<List<IngestReceipt>> getReceipts(@RequestBody List<UUID> receiptIds) {
+        if (receiptIds == null || receiptIds.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        if (receiptIds.size() > maxBatchSize) {
+            logger.warn("Rejected lookup of {} receipts, maximum is {}", receiptIds.size(), maxBatchSize);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        
+        return ResponseEntity.ok(asyncIngestionService.lookup(receiptIds));
+    }
+    
+    @PostMapping("/ingest/batch")
+    public ResponseEntity<BatchIngestResponse> ingestBatch(@RequestBody List<SynapseEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        if (events.size() > maxBatchSize) {
+            logger.warn("Rejected batch of {} events, maximum is {}", events.size(), maxBatchSize);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        
+        long start = IngestionRequestBodyAdvice.bodyReadStart();
+        try {
+            BatchIngestResponse response = eventIngestionService.ingestBatch(events);
+            
+            long elapsed = System.nanoTime() - start;
+            for (IngestResult result : response.results()) {
+                ingestionMetrics.recordEndToEnd(events.get(result.index()), result.status(), elapsed);
+            }
+            
+            HttpStatus status = response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(response);
+            
+        } catch (Exception e) {
+            logger.error("Failed to ingest batch of {} events", events.size(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    // Body is newline-delimited SynapseEvent JSON, consumed as it arrives rather than bound up front
+    @PostMapping(value = "/ingest/stream", consumes = "application/x-ndjson")
+    public ResponseEntity<StreamIngestResponse> ingestStream(HttpServletRequest request) {
+        try {
+            StreamIngestResponse response = eventStreamIngestionService.ingest(request.getInputStream());
+            
+            HttpStatus status = response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(response);
+            
+        } catch (Exception e) {
+            logger.error("Failed to ingest NDJSON stream", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
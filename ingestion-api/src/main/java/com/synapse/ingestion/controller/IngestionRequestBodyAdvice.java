@@ -0,0 +1,72 @@
+package com.synapse.ingestion.controller;
+
+import com.synapse.core.SynapseEvent;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+// Times request body deserialization for the ingest endpoints and remembers when reading
+// started, which is where end-to-end latency is measured from
+@ControllerAdvice(assignableTypes = IngestionController.class)
+public class IngestionRequestBodyAdvice extends RequestBodyAdviceAdapter {
+    
+    static final String BODY_READ_START = IngestionRequestBodyAdvice.class.getName() + ".bodyReadStart";
+    
+    private final IngestionMetrics ingestionMetrics;
+    
+    public IngestionRequestBodyAdvice(IngestionMetrics ingestionMetrics) {
+        this.ingestionMetrics = ingestionMetrics;
+    }
+    
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType, 
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+    
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType, 
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(BODY_READ_START, System.nanoTime(), RequestAttributes.SCOPE_REQUEST);
+        return inputMessage;
+    }
+    
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType, 
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        Object start = RequestContextHolder.currentRequestAttributes()
+                .getAttribute(BODY_READ_START, RequestAttributes.SCOPE_REQUEST);
+        if (!(start instanceof Long startNanos)) {
+            return body;
+        }
+        
+        long elapsed = System.nanoTime() - startNanos;
+        if (body instanceof SynapseEvent event) {
+            ingestionMetrics.recordDeserialize(event, elapsed);
+        } else if (body instanceof List<?> events && !events.isEmpty()) {
+            long share = elapsed / events.size();
+            for (Object event : events) {
+                if (event instanceof SynapseEvent synapseEvent) {
+                    ingestionMetrics.recordDeserialize(synapseEvent, share);
+                }
+            }
+        }
+        return body;
+    }
+    
+    // Falls back to now for requests whose body was not read through the advice
+    static long bodyReadStart() {
+        Object start = RequestContextHolder.currentRequestAttributes()
+                .getAttribute(BODY_READ_START, RequestAttributes.SCOPE_REQUEST);
+        return start instanceof Long startNanos ? startNanos : System.nanoTime();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.synapse.ingestion.controller;
+
+import com.synapse.core.encoding.ContentEncoding;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+
+// Decodes gzip and zstd request bodies as they are read, so the message converters parse the
+// decompressed stream directly. The body size limit counts decompressed bytes, which is what a
+// small compressed body can inflate to.
+@Component
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RequestDecompressionFilter.class);
+    
+    private static final String API_PATH = "/api/v1/";
+    
+    // Read incrementally and meant for uploads of any size, so they are not limited
+    private static final Set<String> STREAMING_PATHS = Set.of("/api/v1/ingest/stream", "/api/v1/admin/bulk-load");
+    
+    @Value("${synapse.ingestion.request.max-body-bytes:16777216}")
+    private long maxBodyBytes;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PATH);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) 
+            throws ServletException, IOException {
+        ContentEncoding encoding;
+        try {
+            encoding = ContentEncoding.fromHeader(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected request {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+            response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, ContentEncoding.GZIP.token() + ", " + ContentEncoding.ZSTD.token());
+            response.getWriter().write(e.getMessage());
+            return;
+        }
+        
+        long limit = STREAMING_PATHS.contains(request.getRequestURI()) ? -1 : maxBodyBytes;
+        if (encoding == null && limit >= 0 && request.getContentLengthLong() > limit) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Request body exceeds " + limit + " bytes");
+            return;
+        }
+        if (encoding == null && limit < 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        chain.doFilter(new DecodedRequest(request, encoding, limit), response);
+    }
+    
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    static class BodyTooLargeException extends IOException {
+        
+        BodyTooLargeException(long limit) {
+            super("Request body exceeds " + limit + " bytes");
+        }
+    }
+    
+    // Hides Content-Encoding and the compressed Content-Length from everything downstream
+    private static class DecodedRequest extends HttpServletRequestWrapper {
+        
+        private final ContentEncoding encoding;
+        private final long limit;
+        private ServletInputStream inputStream;
+        private BufferedReader reader;
+        
+        DecodedRequest(HttpServletRequest request, ContentEncoding encoding, long limit) {
+            super(request);
+            this.encoding = encoding;
+            this.limit = limit;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                InputStream body = super.getInputStream();
+                inputStream = new LimitedInputStream(encoding != null ? encoding.decode(body) : body, limit);
+            }
+            return inputStream;
+        }
+        
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String charset = getCharacterEncoding();
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), 
+                        charset != null ? charset : StandardCharsets.UTF_8.name()));
+            }
+            return reader;
+        }
+        
+        @Override
+        public int getContentLength() {
+            return encoding != null ? -1 : super.getContentLength();
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return encoding != null ? -1 : super.getContentLengthLong();
+        }
+        
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+        
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+        
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isHidden(name))
+                    .toList());
+        }
+        
+        private boolean isHidden(String name) {
+            return encoding != null && (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) 
+                                        || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name));
+        }
+    }
+    
+    private static class LimitedInputStream extends ServletInputStream {
+        
+        private final InputStream delegate;
+        private final long limit;
+        private long bytesRead;
+        private boolean finished;
+        
+        LimitedInputStream(InputStream delegate, long limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            count(b < 0 ? -1 : 1);
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = delegate.read(buffer, offset, length);
+            count(read);
+            return read;
+        }
+        
+        private void count(int read) throws BodyTooLargeException {
+            if (read < 0) {
+                finished = true;
+                return;
+            }
+            bytesRead += read;
+            if (limit >= 0 && bytesRead > limit) {
+                throw new BodyTooLargeException(limit);
+            }
+        }
+        
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+        
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+        
+        // Decoded bodies are read blocking, so the whole body counts as available at once: the
+        // listener reads it in onDataAvailable, where each read waits for the underlying stream
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                if (finished) {
+                    readListener.onAllDataRead();
+                }
+            } catch (Throwable e) {
+                readListener.onError(e);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
\ No newline at end of file
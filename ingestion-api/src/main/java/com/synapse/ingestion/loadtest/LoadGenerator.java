@@ -0,0 +1,368 @@
+package com.synapse.ingestion.loadtest;
+
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.IngestStatus;
+import com.synapse.core.dto.LoadTestReport;
+import com.synapse.core.dto.LoadTestRequest;
+import com.synapse.core.dto.PayloadSizeDistribution;
+import com.synapse.ingestion.metrics.LogSampler;
+import com.synapse.ingestion.service.EventIngestionService;
+import com.synapse.ingestion.service.IngestionOverloadedException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load generator: event n is due at start + n / eventsPerSecond whether or not earlier
+// events have finished, so a slow ingest path shows up as latency instead of a quietly lower rate.
+// Events go straight to EventIngestionService, the HTTP layer and admission filter are not exercised.
+@Component
+public class LoadGenerator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    
+    // Spread of the log-normal payload size distribution, about 2.7x between median and one sigma
+    private static final double LOG_NORMAL_SIGMA = 1.0;
+    
+    @Value("${synapse.ingestion.load-test.max-concurrency:64}")
+    private int maxConcurrency;
+    
+    // Bounds the per-event latency samples kept in memory, 16 bytes per event
+    @Value("${synapse.ingestion.load-test.max-events:2000000}")
+    private int maxEvents;
+    
+    @Value("${synapse.ingestion.load-test.max-payload-bytes:1048576}")
+    private int maxPayloadBytes;
+    
+    private final EventIngestionService eventIngestionService;
+    private final TestEventGenerator testEventGenerator;
+    
+    private volatile LoadRun current;
+    
+    public LoadGenerator(EventIngestionService eventIngestionService, TestEventGenerator testEventGenerator) {
+        this.eventIngestionService = eventIngestionService;
+        this.testEventGenerator = testEventGenerator;
+    }
+    
+    public synchronized LoadTestReport start(LoadTestRequest request) {
+        validate(request);
+        if (current != null && current.isRunning()) {
+            throw new IllegalStateException("Load test " + current.runId + " is still running");
+        }
+        
+        LoadRun run = new LoadRun(request);
+        run.start();
+        current = run;
+        return run.report();
+    }
+    
+    // Current run, or the last one if none is running
+    public LoadTestReport report() {
+        LoadRun run = current;
+        return run != null ? run.report() : null;
+    }
+    
+    public LoadTestReport stop() {
+        LoadRun run = current;
+        if (run == null) {
+            return null;
+        }
+        run.stop();
+        return run.report();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        stop();
+    }
+    
+    private void validate(LoadTestRequest request) {
+        if (!(request.eventsPerSecond() > 0)) {
+            throw new IllegalArgumentException("eventsPerSecond must be positive");
+        }
+        if (request.concurrency() < 1 || request.concurrency() > maxConcurrency) {
+            throw new IllegalArgumentException("concurrency must be between 1 and " + maxConcurrency);
+        }
+        if (request.durationSeconds() < 1) {
+            throw new IllegalArgumentException("durationSeconds must be at least 1");
+        }
+        if (request.plannedEvents() < 1 || request.plannedEvents() > maxEvents) {
+            throw new IllegalArgumentException("eventsPerSecond * durationSeconds must be between 1 and " + maxEvents);
+        }
+        if (request.payloadSizeDistribution() != PayloadSizeDistribution.NATURAL) {
+            if (request.payloadSizeBytes() < 1 || request.payloadSizeMaxBytes() < request.payloadSizeBytes()) {
+                throw new IllegalArgumentException("payloadSizeBytes must be positive and at most payloadSizeMaxBytes");
+            }
+            if (request.payloadSizeMaxBytes() > maxPayloadBytes) {
+                throw new IllegalArgumentException("payloadSizeMaxBytes must be at most " + maxPayloadBytes);
+            }
+        }
+        for (String source : request.sourceMix().keySet()) {
+            if (!TestEventGenerator.EVENT_TYPES_BY_SOURCE.containsKey(source)) {
+                throw new IllegalArgumentException("No generator for source system " + source + 
+                        ", supported: " + TestEventGenerator.EVENT_TYPES_BY_SOURCE.keySet());
+            }
+        }
+        for (String eventType : request.eventTypeMix().keySet()) {
+            if (TestEventGenerator.EVENT_TYPES_BY_SOURCE.values().stream().noneMatch(types -> types.contains(eventType))) {
+                throw new IllegalArgumentException("No generator for event type " + eventType);
+            }
+        }
+        EventMix.of(request.sourceMix(), request.eventTypeMix());
+    }
+    
+    private class LoadRun {
+        
+        private final String runId = UUID.randomUUID().toString().substring(0, 8);
+        private final LoadTestRequest request;
+        private final EventMix mix;
+        private final long plannedEvents;
+        private final double intervalNanos;
+        private final String entityPrefix;
+        
+        private final AtomicLong nextIndex = new AtomicLong();
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder duplicates = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder overloaded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LogSampler failureLog = new LogSampler(100);
+        
+        // Indexed by completion order; a report taken mid-run may include a few slots that are
+        // claimed but not yet written, which read as zero
+        private final long[] latencies;
+        private final long[] serviceTimes;
+        private final AtomicInteger recorded = new AtomicInteger();
+        
+        private final List<Thread> workers = new ArrayList<>();
+        private Instant startedAt;
+        private long startNanos;
+        private volatile long endNanos;
+        private volatile boolean stopped;
+        
+        LoadRun(LoadTestRequest request) {
+            this.request = request;
+            this.mix = EventMix.of(request.sourceMix(), request.eventTypeMix());
+            this.plannedEvents = request.plannedEvents();
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / request.eventsPerSecond();
+            this.entityPrefix = "LT" + runId + "_";
+            this.latencies = new long[(int) plannedEvents];
+            this.serviceTimes = new long[(int) plannedEvents];
+        }
+        
+        void start() {
+            logger.info("Starting load test {}: {} events/s for {}s from {} workers, seed {}", 
+                       runId, request.eventsPerSecond(), request.durationSeconds(), 
+                       request.concurrency(), request.seed());
+            
+            startedAt = Instant.now();
+            startNanos = System.nanoTime();
+            activeWorkers.set(request.concurrency());
+            for (int i = 0; i < request.concurrency(); i++) {
+                Thread worker = new Thread(this::work, "load-generator-" + runId + "-" + i);
+                worker.setDaemon(true);
+                workers.add(worker);
+            }
+            workers.forEach(Thread::start);
+        }
+        
+        boolean isRunning() {
+            return endNanos == 0;
+        }
+        
+        void stop() {
+            if (!isRunning()) {
+                return;
+            }
+            stopped = true;
+            workers.forEach(LockSupport::unpark);
+        }
+        
+        private void work() {
+            try {
+                long n;
+                while (!stopped && (n = nextIndex.getAndIncrement()) < plannedEvents) {
+                    // Built before waiting so generation cost stays out of the measured latency
+                    SynapseEvent event = nextEvent(n);
+                    long scheduled = startNanos + (long) (n * intervalNanos);
+                    
+                    long wait;
+                    while (!stopped && (wait = scheduled - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    if (stopped) {
+                        break;
+                    }
+                    send(event, scheduled);
+                }
+            } catch (Exception e) {
+                logger.error("Load test {} worker failed", runId, e);
+            } finally {
+                if (activeWorkers.decrementAndGet() == 0) {
+                    finish();
+                }
+            }
+        }
+        
+        // Event n depends only on the seed and n, not on which worker happens to build it
+        private SynapseEvent nextEvent(long n) throws Exception {
+            Random random = new Random(request.seed() ^ (n * 0x9E3779B97F4A7C15L));
+            SynapseEvent event = testEventGenerator.generate(mix.pick(random), random, entityPrefix, startedAt);
+            int targetBytes = targetPayloadBytes(random);
+            return targetBytes > 0 ? testEventGenerator.padTo(event, targetBytes) : event;
+        }
+        
+        private int targetPayloadBytes(Random random) {
+            int size = request.payloadSizeBytes();
+            int max = request.payloadSizeMaxBytes();
+            return switch (request.payloadSizeDistribution()) {
+                case NATURAL -> 0;
+                case FIXED -> size;
+                case UNIFORM -> size + random.nextInt(max - size + 1);
+                case LOG_NORMAL -> (int) Math.min(max, Math.round(size * Math.exp(LOG_NORMAL_SIGMA * random.nextGaussian())));
+            };
+        }
+        
+        private void send(SynapseEvent event, long scheduled) {
+            long sendStart = System.nanoTime();
+            try {
+                IngestStatus status = eventIngestionService.ingestEvent(event).status();
+                switch (status) {
+                    case CREATED, ACCEPTED -> succeeded.increment();
+                    case DUPLICATE -> duplicates.increment();
+                    case REJECTED -> rejected.increment();
+                    case FAILED -> failed.increment();
+                }
+            } catch (IngestionOverloadedException e) {
+                overloaded.increment();
+            } catch (Exception e) {
+                failed.increment();
+                if (failureLog.sample()) {
+                    logger.warn("Load test {} event failed, logging 1 in {} failures: {}", 
+                               runId, failureLog.rate(), e.getMessage());
+                }
+            }
+            
+            long end = System.nanoTime();
+            int slot = recorded.getAndIncrement();
+            latencies[slot] = end - scheduled;
+            serviceTimes[slot] = end - sendStart;
+            sent.increment();
+        }
+        
+        private void finish() {
+            endNanos = System.nanoTime();
+            LoadTestReport report = report();
+            logger.info("Load test {} {}: {} events in {} ms, {} events/s, p50 {} ms, p95 {} ms, p99 {} ms", 
+                       runId, report.state(), report.sent(), report.elapsedMs(), 
+                       String.format("%.1f", report.achievedEventsPerSecond()),
+                       report.latency() != null ? report.latency().p50Ms() : null,
+                       report.latency() != null ? report.latency().p95Ms() : null,
+                       report.latency() != null ? report.latency().p99Ms() : null);
+        }
+        
+        LoadTestReport report() {
+            long end = endNanos;
+            long elapsedNanos = (end != 0 ? end : System.nanoTime()) - startNanos;
+            long sentCount = sent.sum();
+            int samples = Math.min(recorded.get(), latencies.length);
+            
+            LoadTestReport.State state = end == 0 ? LoadTestReport.State.RUNNING 
+                                       : stopped ? LoadTestReport.State.STOPPED 
+                                       : LoadTestReport.State.COMPLETED;
+            double eventsPerSecond = elapsedNanos > 0 ? sentCount * 1e9 / elapsedNanos : 0;
+            
+            return new LoadTestReport(runId, state, request, startedAt, 
+                                      TimeUnit.NANOSECONDS.toMillis(elapsedNanos), plannedEvents, sentCount, 
+                                      succeeded.sum(), duplicates.sum(), rejected.sum(), overloaded.sum(), failed.sum(), 
+                                      eventsPerSecond, percentiles(latencies, samples), percentiles(serviceTimes, samples));
+        }
+    }
+    
+    private static LoadTestReport.Percentiles percentiles(long[] samples, int count) {
+        if (count == 0) {
+            return null;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new LoadTestReport.Percentiles(millis(quantile(sorted, 0.50)), millis(quantile(sorted, 0.95)), 
+                                              millis(quantile(sorted, 0.99)), millis(sorted[count - 1]));
+    }
+    
+    // Nearest-rank quantile
+    private static long quantile(long[] sorted, double quantile) {
+        return sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+    
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+    
+    // Event types with cumulative weights: a source's weight is split across its event types in
+    // proportion to their own weights
+    private record EventMix(String[] eventTypes, double[] cumulativeWeights) {
+        
+        static EventMix of(Map<String, Double> sourceMix, Map<String, Double> eventTypeMix) {
+            List<String> eventTypes = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            
+            // Sorted so the same mix maps the same random draws to the same event types
+            for (String source : sourceMix.keySet().stream().sorted().toList()) {
+                double sourceWeight = weight(sourceMix.get(source), source);
+                List<String> types = TestEventGenerator.EVENT_TYPES_BY_SOURCE.get(source);
+                double typeTotal = types.stream().mapToDouble(type -> weight(eventTypeMix.getOrDefault(type, 1.0), type)).sum();
+                for (String type : types) {
+                    double typeWeight = weight(eventTypeMix.getOrDefault(type, 1.0), type);
+                    if (sourceWeight > 0 && typeWeight > 0) {
+                        eventTypes.add(type);
+                        weights.add(sourceWeight * typeWeight / typeTotal);
+                    }
+                }
+            }
+            if (eventTypes.isEmpty()) {
+                throw new IllegalArgumentException("sourceMix and eventTypeMix leave no event type with a positive weight");
+            }
+            
+            double[] cumulative = new double[weights.size()];
+            double total = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                total += weights.get(i);
+                cumulative[i] = total;
+            }
+            return new EventMix(eventTypes.toArray(String[]::new), cumulative);
+        }
+        
+        private static double weight(Double weight, String name) {
+            if (weight == null || weight < 0 || weight.isNaN() || weight.isInfinite()) {
+                throw new IllegalArgumentException("Weight for " + name + " must be a non-negative number");
+            }
+            return weight;
+        }
+        
+        String pick(Random random) {
+            double r = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+                if (r < cumulativeWeights[i]) {
+                    return eventTypes[i];
+                }
+            }
+            return eventTypes[eventTypes.length - 1];
+        }
+    }
+}
\ No newline at end of file
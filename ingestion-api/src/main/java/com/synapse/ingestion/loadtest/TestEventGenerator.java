@@ -0,0 +1,272 @@
+package com.synapse.ingestion.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.constants.EventType;
+import com.synapse.core.constants.SourceSystem;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Builds realistic-looking dummy events. Everything, including IDs and timestamps relative to the
+// given base time, comes from the supplied Random so a seed reproduces the same events.
+@Component
+public class TestEventGenerator {
+    
+    public static final Map<String, List<String>> EVENT_TYPES_BY_SOURCE = Map.of(
+            SourceSystem.SLACK, List.of(EventType.SLACK_MESSAGE_POSTED),
+            SourceSystem.JIRA, List.of(EventType.JIRA_TICKET_CREATED, EventType.JIRA_TICKET_COMMENT_ADDED),
+            SourceSystem.GITHUB, List.of(EventType.GITHUB_COMMIT_PUSHED)
+    );
+    
+    // Free-text payload field that padding is appended to
+    private static final Map<String, String> TEXT_FIELDS = Map.of(
+            EventType.SLACK_MESSAGE_POSTED, "text",
+            EventType.JIRA_TICKET_CREATED, "description",
+            EventType.JIRA_TICKET_COMMENT_ADDED, "comment",
+            EventType.GITHUB_COMMIT_PUSHED, "message"
+    );
+    
+    private static final List<String> SLACK_USERS = List.of("nikola.sevic", "john.doe", "jane.smith", "mike.johnson", "sarah.wilson");
+    private static final List<String> SLACK_CHANNELS = List.of("general", "development", "random", "synapse-project", "tech-talk");
+    private static final List<String> SLACK_MESSAGES = List.of(
+        "Hey team, how's the new feature coming along?",
+        "I just pushed the latest changes to the repo. Please review when you get a chance.",
+        "The database migration completed successfully in production.",
+        "Can someone help me debug this issue with the API endpoints?",
+        "Great job on the presentation today! 🎉",
+        "I think we should consider using Redis for caching in the next iteration.",
+        "The client meeting went well. They're happy with the progress.",
+        "Don't forget about the sprint retrospective tomorrow at 2 PM.",
+        "I found a potential security vulnerability in the auth service.",
+        "The performance improvements are working great! Response times down by 40%.",
+        "Quick question - what's our deployment schedule for this week?",
+        "I've updated the documentation with the new API changes.",
+        "The automated tests are passing on all environments.",
+        "We might need to scale up the database before the weekend.",
+        "Anyone available for a quick pair programming session?"
+    );
+    
+    private static final List<String> JIRA_AUTHORS = List.of("nikola.sevic@company.com", "john.doe@company.com", "jane.smith@company.com");
+    private static final List<String> JIRA_PROJECTS = List.of("SYNAPSE", "AUTH", "API", "FRONTEND", "INFRA");
+    private static final List<String> JIRA_TICKET_TYPES = List.of("Bug", "Story", "Task", "Epic");
+    private static final List<String> JIRA_STATUSES = List.of("Open", "In Progress", "Review", "Done");
+    private static final List<String> JIRA_TITLES = List.of(
+        "Fix authentication timeout issues",
+        "Implement new user dashboard",
+        "Optimize database queries for better performance",
+        "Add unit tests for payment processing",
+        "Update API documentation",
+        "Investigate memory leak in background jobs",
+        "Create responsive design for mobile users",
+        "Implement rate limiting for API endpoints",
+        "Add logging and monitoring to microservices",
+        "Refactor legacy code in user management module"
+    );
+    private static final List<String> JIRA_DESCRIPTIONS = List.of(
+        "Users are experiencing timeout issues when logging in during peak hours. Need to investigate and fix.",
+        "Design and implement a new dashboard for users to view their account information and activity.",
+        "The current database queries are taking too long. We need to optimize them for better performance.",
+        "Add comprehensive unit tests to ensure payment processing works correctly in all scenarios.",
+        "The API documentation is outdated and needs to be updated with the latest endpoint changes.",
+        "There appears to be a memory leak in our background job processing that needs investigation.",
+        "Our current design doesn't work well on mobile devices. Need to implement responsive design.",
+        "Implement rate limiting to prevent API abuse and ensure fair usage across all clients.",
+        "Add proper logging and monitoring to all microservices for better observability.",
+        "The user management module has legacy code that needs to be refactored for maintainability."
+    );
+    private static final List<String> JIRA_COMMENTS = List.of(
+        "I can take a look at this issue tomorrow.",
+        "This is related to the work we did last sprint. Let me check the implementation.",
+        "I've seen this issue before. The solution is to update the configuration in the database.",
+        "Good catch! This needs to be prioritized for the next release.",
+        "I'll assign this to my team. We have experience with similar issues.",
+        "Can we schedule a quick call to discuss the requirements?",
+        "The fix has been deployed to staging. Please test when you get a chance.",
+        "I've created a pull request with the proposed solution.",
+        "This issue is blocked by INFRA-456. We need to wait for that to be resolved first.",
+        "I've updated the acceptance criteria based on our discussion."
+    );
+    
+    private static final List<String> GITHUB_AUTHORS = List.of("sevkic", "john-dev", "jane-smith", "mike-johnson");
+    private static final List<String> GITHUB_REPOSITORIES = List.of("synapse-project", "auth-service", "api-gateway", "frontend-app");
+    private static final List<String> GITHUB_COMMIT_MESSAGES = List.of(
+        "Fix: Resolve authentication timeout issues in login flow",
+        "Feature: Add new user dashboard with activity tracking",
+        "Performance: Optimize database queries for 40% speed improvement",
+        "Test: Add comprehensive unit tests for payment processing",
+        "Docs: Update API documentation with latest endpoint changes",
+        "Fix: Resolve memory leak in background job processing",
+        "UI: Implement responsive design for mobile compatibility",
+        "Security: Add rate limiting to prevent API abuse",
+        "Monitoring: Add logging and observability to microservices",
+        "Refactor: Clean up legacy code in user management module",
+        "CI/CD: Update deployment pipeline configuration",
+        "Dependencies: Upgrade Spring Boot to latest version",
+        "Config: Update environment configurations for production",
+        "Hotfix: Critical bug fix for payment processing",
+        "Feature: Implement real-time notifications system"
+    );
+    
+    // Plain ASCII so one character is one byte of serialized payload
+    private static final String FILLER = String.join(" ", JIRA_DESCRIPTIONS);
+    
+    private final ObjectMapper objectMapper;
+    
+    public TestEventGenerator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    // entityPrefix is prepended to source entity IDs, so separate runs with the same seed are
+    // not dropped as duplicates of each other
+    public SynapseEvent generate(String eventType, Random random, String entityPrefix, Instant now) {
+        return switch (eventType) {
+            case EventType.SLACK_MESSAGE_POSTED -> slackMessage(random, entityPrefix, now);
+            case EventType.JIRA_TICKET_CREATED -> jiraTicket(random, entityPrefix, now);
+            case EventType.JIRA_TICKET_COMMENT_ADDED -> jiraComment(random, entityPrefix + jiraTicketId(random), 
+                    now.minusSeconds(random.nextInt(86400 * 7)));
+            case EventType.GITHUB_COMMIT_PUSHED -> githubCommit(random, entityPrefix, now);
+            default -> throw new IllegalArgumentException("No generator for event type " + eventType);
+        };
+    }
+    
+    public SynapseEvent slackMessage(Random random, String entityPrefix, Instant now) {
+        String user = pick(random, SLACK_USERS);
+        String channel = pick(random, SLACK_CHANNELS);
+        String message = pick(random, SLACK_MESSAGES);
+        
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("user", user);
+        payload.put("text", message);
+        payload.put("channel", channel);
+        payload.put("timestamp", String.valueOf(now.minusSeconds(random.nextInt(3600)).getEpochSecond()));
+        payload.put("isThreadReply", random.nextBoolean());
+        
+        if (payload.get("isThreadReply").asBoolean()) {
+            payload.put("threadTimestamp", String.valueOf(now.minusSeconds(random.nextInt(7200)).getEpochSecond()));
+        }
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.SLACK)
+                .sourceEntityId("MSG_" + entityPrefix + hex(random, 8))
+                .eventType(EventType.SLACK_MESSAGE_POSTED)
+                .timestamp(now.minusSeconds(random.nextInt(3600)))
+                .payload(payload)
+                .build();
+    }
+    
+    public SynapseEvent jiraTicket(Random random, String entityPrefix, Instant now) {
+        String ticketId = jiraTicketId(random);
+        String project = ticketId.substring(0, ticketId.indexOf('-'));
+        String author = pick(random, JIRA_AUTHORS);
+        
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("author", author);
+        payload.put("title", pick(random, JIRA_TITLES));
+        payload.put("description", pick(random, JIRA_DESCRIPTIONS));
+        payload.put("status", pick(random, JIRA_STATUSES));
+        payload.put("ticketType", pick(random, JIRA_TICKET_TYPES));
+        payload.put("project", project);
+        payload.put("url", "https://company.atlassian.net/browse/" + ticketId);
+        payload.put("priority", random.nextBoolean() ? "High" : "Medium");
+        payload.put("assignee", pick(random, JIRA_AUTHORS));
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.JIRA)
+                .sourceEntityId(entityPrefix + ticketId)
+                .eventType(EventType.JIRA_TICKET_CREATED)
+                .timestamp(now.minusSeconds(random.nextInt(86400 * 7))) // Last week
+                .payload(payload)
+                .build();
+    }
+    
+    public SynapseEvent jiraComment(Random random, String ticketEntityId, Instant ticketCreated) {
+        String ticketId = ticketEntityId.substring(ticketEntityId.lastIndexOf('_') + 1);
+        
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("author", pick(random, JIRA_AUTHORS));
+        payload.put("comment", pick(random, JIRA_COMMENTS));
+        payload.put("ticketId", ticketId);
+        payload.put("url", "https://company.atlassian.net/browse/" + ticketId + "#comment-" + random.nextInt(1000));
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.JIRA)
+                .sourceEntityId(ticketEntityId + "_COMMENT_" + random.nextInt(1000))
+                .eventType(EventType.JIRA_TICKET_COMMENT_ADDED)
+                .timestamp(ticketCreated.plus(random.nextInt(48), ChronoUnit.HOURS))
+                .payload(payload)
+                .build();
+    }
+    
+    public SynapseEvent githubCommit(Random random, String entityPrefix, Instant now) {
+        String author = pick(random, GITHUB_AUTHORS);
+        String repo = pick(random, GITHUB_REPOSITORIES);
+        String message = pick(random, GITHUB_COMMIT_MESSAGES);
+        String commitId = hex(random, 40);
+        
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("author", author);
+        payload.put("message", message);
+        payload.put("repository", repo);
+        payload.put("commitId", commitId);
+        payload.put("url", "https://github.com/sevkic/" + repo + "/commit/" + commitId);
+        payload.put("branch", random.nextBoolean() ? "main" : "develop");
+        payload.put("filesChanged", random.nextInt(10) + 1);
+        payload.put("additions", random.nextInt(200) + 1);
+        payload.put("deletions", random.nextInt(50));
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.GITHUB)
+                .sourceEntityId(entityPrefix + commitId)
+                .eventType(EventType.GITHUB_COMMIT_PUSHED)
+                .timestamp(now.minusSeconds(random.nextInt(86400 * 3))) // Last 3 days
+                .payload(payload)
+                .build();
+    }
+    
+    // Grows the event's free-text field until the serialized payload is about targetBytes long.
+    // Payloads that are already larger are left alone.
+    public SynapseEvent padTo(SynapseEvent event, int targetBytes) throws JsonProcessingException {
+        String field = TEXT_FIELDS.get(event.eventType());
+        if (field == null || !(event.payload() instanceof ObjectNode payload)) {
+            return event;
+        }
+        
+        int missing = targetBytes - objectMapper.writeValueAsBytes(payload).length - 1;
+        if (missing <= 0) {
+            return event;
+        }
+        
+        StringBuilder text = new StringBuilder(payload.get(field).asText()).append(' ');
+        while (missing > 0) {
+            int chunk = Math.min(missing, FILLER.length());
+            text.append(FILLER, 0, chunk);
+            missing -= chunk;
+        }
+        payload.put(field, text.toString());
+        return event;
+    }
+    
+    private static String jiraTicketId(Random random) {
+        return pick(random, JIRA_PROJECTS) + "-" + (100 + random.nextInt(900));
+    }
+    
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+    
+    private static String hex(Random random, int length) {
+        String chars = "0123456789abcdef";
+        StringBuilder hash = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            hash.append(chars.charAt(random.nextInt(chars.length())));
+        }
+        return hash.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.synapse.ingestion.metrics;
+
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.IngestStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Hot path meters, tagged by sourceSystem and eventType. Batch requests are recorded per event for
+// deserialize time, as the event's share of the batch, and end-to-end time, as the latency the event
+// saw. A batch's write is timed once, with its size, since the per-event persist stage would count
+// the whole write once for every event. Histograms are enabled in configuration, see application.yml.
+@Component
+public class IngestionMetrics {
+    
+    public static final String STAGE_TIMER = "synapse.ingestion.stage";
+    public static final String LATENCY_TIMER = "synapse.ingestion.latency";
+    public static final String BATCH_PERSIST_TIMER = "synapse.ingestion.batch.persist";
+    public static final String BATCH_SIZE = "synapse.ingestion.batch.size";
+    public static final String PAYLOAD_SIZE = "synapse.ingestion.payload.size";
+    public static final String DB_ERRORS = "synapse.ingestion.db.errors";
+    
+    private static final String UNKNOWN = "unknown";
+    
+    private final MeterRegistry meterRegistry;
+    
+    public IngestionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public void recordDeserialize(SynapseEvent event, long nanos) {
+        recordStage("deserialize", event, nanos);
+    }
+    
+    public void recordValidate(SynapseEvent event, long nanos) {
+        recordStage("validate", event, nanos);
+    }
+    
+    public void recordPersist(SynapseEvent event, long nanos) {
+        recordStage("persist", event, nanos);
+    }
+    
+    public void recordBatchPersist(int events, long nanos) {
+        Timer.builder(BATCH_PERSIST_TIMER)
+                .description("Time to write one batch of events")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(BATCH_SIZE)
+                .description("Events written per batch")
+                .baseUnit("events")
+                .register(meterRegistry)
+                .record(events);
+    }
+    
+    public void recordEndToEnd(SynapseEvent event, IngestStatus status, long nanos) {
+        Timer.builder(LATENCY_TIMER)
+                .description("End-to-end ingestion latency, from reading the request body to the response")
+                .tag("sourceSystem", sourceSystem(event))
+                .tag("eventType", eventType(event))
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordPayloadSize(SynapseEvent event, int bytes) {
+        DistributionSummary.builder(PAYLOAD_SIZE)
+                .description("Size of stored event payloads")
+                .baseUnit("bytes")
+                .tag("sourceSystem", sourceSystem(event))
+                .tag("eventType", eventType(event))
+                .register(meterRegistry)
+                .record(bytes);
+    }
+    
+    // Tagged with the SQL state class (e.g. 23 = integrity violation, 08 = connection) when there is one
+    public void recordDatabaseError(String operation, Throwable error) {
+        Counter.builder(DB_ERRORS)
+                .description("Failed event inserts")
+                .tag("operation", operation)
+                .tag("exception", error.getClass().getSimpleName())
+                .tag("sqlState", sqlStateClass(error))
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    private void recordStage(String stage, SynapseEvent event, long nanos) {
+        Timer.builder(STAGE_TIMER)
+                .description("Time spent per event in each ingestion stage")
+                .tag("stage", stage)
+                .tag("sourceSystem", sourceSystem(event))
+                .tag("eventType", eventType(event))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private static String sourceSystem(SynapseEvent event) {
+        return event != null && event.sourceSystem() != null ? event.sourceSystem() : UNKNOWN;
+    }
+    
+    private static String eventType(SynapseEvent event) {
+        return event != null && event.eventType() != null ? event.eventType() : UNKNOWN;
+    }
+    
+    private static String sqlStateClass(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null 
+                    && sqlException.getSQLState().length() >= 2) {
+                return sqlException.getSQLState().substring(0, 2);
+            }
+        }
+        return "none";
+    }
+}
\ No newline at end of file
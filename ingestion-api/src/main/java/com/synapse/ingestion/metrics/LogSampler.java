@@ -0,0 +1,23 @@
+package com.synapse.ingestion.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lets one in every `rate` calls through, for log lines that would otherwise be written per event.
+// A rate of 1 logs everything, 0 or less logs nothing.
+public class LogSampler {
+    
+    private final int rate;
+    private final AtomicLong calls = new AtomicLong();
+    
+    public LogSampler(int rate) {
+        this.rate = rate;
+    }
+    
+    public boolean sample() {
+        return rate > 0 && calls.getAndIncrement() % rate == 0;
+    }
+    
+    public int rate() {
+        return rate;
+    }
+}
\ No newline at end of file
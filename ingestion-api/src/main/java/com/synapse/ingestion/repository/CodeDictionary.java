@@ -0,0 +1,81 @@
+package com.synapse.ingestion.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of one (id SMALLINT, name) lookup table from 004_dictionary_encode_types.sql.
+// Hits never touch the database; a miss reloads the table, since another instance or a bulk load
+// may have added the name, and inserts it only if it is still missing. Every name added is a
+// permanent row, so a table stops taking new names once it holds maxSize of them.
+class CodeDictionary {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CodeDictionary.class);
+    
+    private final String table;
+    private final JdbcTemplate jdbcTemplate;
+    // Lookup rows are committed on their own, so a code stays valid even if the event
+    // transaction that first needed it rolls back
+    private final TransactionTemplate requiresNew;
+    private final int maxSize;
+    private final Map<String, Short> codes = new ConcurrentHashMap<>();
+    
+    CodeDictionary(String table, JdbcTemplate jdbcTemplate, TransactionTemplate requiresNew, int maxSize) {
+        this.table = table;
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = requiresNew;
+        this.maxSize = maxSize;
+    }
+    
+    void refresh() {
+        requiresNew.executeWithoutResult(tx -> jdbcTemplate.query("SELECT id, name FROM " + table, 
+                resultSet -> {
+                    codes.put(resultSet.getString("name"), resultSet.getShort("id"));
+                }));
+    }
+    
+    short codeOf(String name) {
+        Short code = codes.get(name);
+        return code != null ? code : resolve(name);
+    }
+    
+    // Checked during validation, from the cached codes; resolve makes the final decision
+    boolean admits(String name) {
+        return codes.containsKey(name) || codes.size() < maxSize;
+    }
+    
+    int size() {
+        return codes.size();
+    }
+    
+    private synchronized short resolve(String name) {
+        Short code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        
+        refresh();
+        code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (codes.size() >= maxSize) {
+            throw new IllegalArgumentException("Cannot add " + table + " '" + name + "', the table already holds " 
+                                               + codes.size() + " names");
+        }
+        
+        // Two statements: the SELECT needs a fresh snapshot to see a row that a concurrent
+        // insert committed while ON CONFLICT was waiting on it
+        code = requiresNew.execute(tx -> {
+            jdbcTemplate.update("INSERT INTO " + table + " (name) VALUES (?) ON CONFLICT (name) DO NOTHING", name);
+            return jdbcTemplate.queryForObject("SELECT id FROM " + table + " WHERE name = ?", Short.class, name);
+        });
+        codes.put(name, code);
+        logger.info("Added {} '{}' with code {}", table, name, code);
+        return code;
+    }
+}
\ No newline at end of file
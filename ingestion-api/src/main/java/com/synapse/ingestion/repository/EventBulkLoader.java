@@ -0,0 +1,230 @@
+package com.synapse.ingestion.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.json.RawPayloads;
+import com.synapse.ingestion.blob.PayloadOffloader;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+
+@Repository
+public class EventBulkLoader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventBulkLoader.class);
+    
+    private static final int COLUMN_COUNT = 8;
+    
+    private static final String CREATE_STAGING_SQL = """
+        CREATE TEMP TABLE IF NOT EXISTS events_staging (
+            event_id UUID NOT NULL,
+            correlation_id UUID,
+            source_system VARCHAR(50) NOT NULL,
+            source_entity_id VARCHAR(255) NOT NULL,
+            event_type VARCHAR(100) NOT NULL,
+            event_timestamp TIMESTAMPTZ NOT NULL,
+            version INT NOT NULL,
+            payload JSONB NOT NULL
+        ) ON COMMIT DELETE ROWS
+        """;
+    
+    private static final String COPY_STAGING_SQL = """
+        COPY events_staging (
+            event_id, correlation_id, source_system, source_entity_id,
+            event_type, event_timestamp, version, payload
+        ) FROM STDIN WITH (FORMAT binary)
+        """;
+    
+    // Staged rows carry names; any the lookup tables do not know yet are added before the merge,
+    // up to the same maximum table size CodeDictionary enforces. NOT EXISTS keeps known names out of
+    // the INSERT, where ON CONFLICT would still draw and waste a SMALLSERIAL value for each of them.
+    private static final String REGISTER_SOURCE_SYSTEMS_SQL = """
+        INSERT INTO source_systems (name)
+        SELECT DISTINCT staged.source_system FROM events_staging staged
+        WHERE NOT EXISTS (SELECT 1 FROM source_systems WHERE name = staged.source_system)
+        ORDER BY 1
+        LIMIT GREATEST(? - (SELECT count(*) FROM source_systems), 0)
+        ON CONFLICT (name) DO NOTHING
+        """;
+    
+    private static final String REGISTER_EVENT_TYPES_SQL = """
+        INSERT INTO event_types (name)
+        SELECT DISTINCT staged.event_type FROM events_staging staged
+        WHERE NOT EXISTS (SELECT 1 FROM event_types WHERE name = staged.event_type)
+        ORDER BY 1
+        LIMIT GREATEST(? - (SELECT count(*) FROM event_types), 0)
+        ON CONFLICT (name) DO NOTHING
+        """;
+    
+    // Rows whose names found no room in the lookup tables; the merge's joins leave them out
+    private static final String COUNT_UNREGISTERED_SQL = """
+        SELECT count(*) FROM events_staging staged
+        WHERE NOT EXISTS (SELECT 1 FROM source_systems WHERE name = staged.source_system)
+           OR NOT EXISTS (SELECT 1 FROM event_types WHERE name = staged.event_type)
+        """;
+    
+    // Rows whose fingerprint is already in event_fingerprints, or repeated inside the chunk, are
+    // skipped; rows whose event ID is already stored are skipped by ON CONFLICT
+    private static final String MERGE_STAGING_SQL = """
+        WITH fingerprints AS (
+            INSERT INTO event_fingerprints (source_system_id, source_entity_id, content_hash)
+            SELECT DISTINCT s.id, staged.source_entity_id, md5(staged.payload::text)
+            FROM events_staging staged
+            JOIN source_systems s ON s.name = staged.source_system
+            ON CONFLICT DO NOTHING
+            RETURNING source_system_id, source_entity_id, content_hash
+        )
+        INSERT INTO events (
+            event_id, correlation_id, source_system_id, source_entity_id,
+            event_type_id, event_timestamp, version, payload
+        )
+        SELECT DISTINCT ON (f.source_system_id, f.source_entity_id, f.content_hash)
+            staged.event_id, staged.correlation_id, s.id, staged.source_entity_id,
+            t.id, staged.event_timestamp, staged.version, staged.payload
+        FROM events_staging staged
+        JOIN source_systems s ON s.name = staged.source_system
+        JOIN event_types t ON t.name = staged.event_type
+        JOIN fingerprints f ON f.source_system_id = s.id
+                           AND f.source_entity_id = staged.source_entity_id
+                           AND f.content_hash = md5(staged.payload::text)
+        ON CONFLICT DO NOTHING
+        """;
+    
+    // Backfills reach far into the past, so make sure their months have partitions before merging
+    private static final String CREATE_PARTITIONS_SQL = """
+        SELECT create_events_partition(month)
+        FROM (
+            SELECT DISTINCT date_trunc('month', event_timestamp AT TIME ZONE 'UTC')::date AS month
+            FROM events_staging
+        ) staged_months
+        """;
+    
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final PayloadOffloader payloadOffloader;
+    private final int maxSourceSystems;
+    private final int maxEventTypes;
+    
+    public EventBulkLoader(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, PayloadOffloader payloadOffloader,
+                           @Value("${synapse.ingestion.dictionary.max-source-systems:100}") int maxSourceSystems,
+                           @Value("${synapse.ingestion.dictionary.max-event-types:2000}") int maxEventTypes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.payloadOffloader = payloadOffloader;
+        this.maxSourceSystems = maxSourceSystems;
+        this.maxEventTypes = maxEventTypes;
+    }
+    
+    // Streams up to maxRows events into the staging table with binary COPY and merges them into events.
+    // The caller owns the transaction; staging rows are cleared when it commits
+    public ChunkResult loadChunk(Iterator<SynapseEvent> events, int maxRows) {
+        return jdbcTemplate.execute((ConnectionCallback<ChunkResult>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_SQL);
+            }
+            
+            long staged = copyIntoStaging(connection, events, maxRows);
+            if (staged == 0) {
+                return new ChunkResult(0, 0, 0);
+            }
+            
+            register(connection, REGISTER_SOURCE_SYSTEMS_SQL, maxSourceSystems);
+            register(connection, REGISTER_EVENT_TYPES_SQL, maxEventTypes);
+            
+            try (Statement statement = connection.createStatement()) {
+                long rejected;
+                try (ResultSet resultSet = statement.executeQuery(COUNT_UNREGISTERED_SQL)) {
+                    resultSet.next();
+                    rejected = resultSet.getLong(1);
+                }
+                if (rejected > 0) {
+                    logger.warn("Skipping {} bulk loaded events with a source system or event type the lookup "
+                               + "tables have no room for", rejected);
+                }
+                
+                statement.execute(CREATE_PARTITIONS_SQL);
+                int inserted = statement.executeUpdate(MERGE_STAGING_SQL);
+                logger.debug("Merged bulk load chunk: {} staged, {} inserted", staged, inserted);
+                return new ChunkResult(staged, inserted, rejected);
+            }
+        });
+    }
+    
+    private static void register(Connection connection, String sql, int maxSize) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, maxSize);
+            statement.executeUpdate();
+        }
+    }
+    
+    private long copyIntoStaging(Connection connection, Iterator<SynapseEvent> events, int maxRows)
+            throws SQLException {
+        PGCopyOutputStream copy = new PGCopyOutputStream(
+                connection.unwrap(PGConnection.class), COPY_STAGING_SQL, COPY_BUFFER_SIZE);
+        
+        try {
+            PgBinaryCopyWriter writer = new PgBinaryCopyWriter(copy);
+            writer.writeHeader();
+            
+            int rows = 0;
+            while (rows < maxRows && events.hasNext()) {
+                writeRow(writer, events.next());
+                rows++;
+            }
+            
+            writer.writeTrailer();
+            return copy.endCopy();
+            
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream events to COPY", e);
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+    
+    private void writeRow(PgBinaryCopyWriter writer, SynapseEvent event) throws IOException {
+        writer.startRow(COLUMN_COUNT);
+        writer.writeUuid(event.eventId());
+        writer.writeUuid(event.correlationId());
+        writer.writeText(event.sourceSystem());
+        writer.writeText(event.sourceEntityId());
+        writer.writeText(event.eventType());
+        writer.writeTimestamptz(event.timestamp());
+        writer.writeInt(event.version());
+        writer.writeJsonb(toJsonBytes(event));
+    }
+    
+    private byte[] toJsonBytes(SynapseEvent event) {
+        try {
+            byte[] json = RawPayloads.toJson(event.payload(), objectMapper).getBytes(StandardCharsets.UTF_8);
+            return payloadOffloader.offload(json);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize event payload for event ID: {}", event.eventId(), e);
+            throw new RuntimeException("Failed to serialize event payload", e);
+        }
+    }
+    
+    // rejected counts the staged rows left out for want of room in the lookup tables
+    public record ChunkResult(long staged, long inserted, long rejected) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.synapse.ingestion.repository;
+
+import com.synapse.ingestion.blob.BlobStore;
+import com.synapse.ingestion.blob.PayloadOffloader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Repository
+public class EventPartitionRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventPartitionRepository.class);
+    
+    // Names produced by create_events_partition() in 003_partition_events.sql
+    private static final Pattern PARTITION_NAME = Pattern.compile("events_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    private static final String LIST_PARTITIONS_SQL = """
+        SELECT child.relname
+        FROM pg_inherits
+        JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = 'events'
+        ORDER BY child.relname
+        """;
+    
+    private static final String BLOB_HASH = "payload -> '" + PayloadOffloader.BLOB_FIELD + "' ->> 'sha256'";
+    
+    // Blobs are shared by every event with the same content, so only those no remaining event refers to can go.
+    // A full scan, but partitions expire once a month.
+    private static final String REFERENCED_BLOBS_SQL = 
+            "SELECT DISTINCT " + BLOB_HASH + " FROM events WHERE " + BLOB_HASH + " = ANY(?::text[])";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    
+    public EventPartitionRepository(JdbcTemplate jdbcTemplate, BlobStore blobStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+    }
+    
+    public boolean createMonthlyPartition(YearMonth month) {
+        Boolean created = jdbcTemplate.queryForObject(
+                "SELECT create_events_partition(?)", Boolean.class, Date.valueOf(month.atDay(1)));
+        return Boolean.TRUE.equals(created);
+    }
+    
+    public List<YearMonth> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class).stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> YearMonth.parse(matcher.group(1), PARTITION_MONTH))
+                .toList();
+    }
+    
+    public boolean defaultPartitionHasRows() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM events_default)", Boolean.class));
+    }
+    
+    // Document chunks and processing state lost their foreign keys with partitioning, so they are
+    // removed here together with the events they belong to, as are the events' fingerprints and the
+    // offloaded payload blobs no other event refers to. Blob files are only deleted once the detach
+    // has committed, so a rollback never leaves events pointing at missing blobs.
+    @Transactional
+    public void detachPartition(YearMonth month, boolean drop) {
+        String partition = partitionName(month);
+        
+        int chunks = jdbcTemplate.update(
+                "DELETE FROM document_chunks WHERE source_event_id IN (SELECT event_id FROM " + partition + ")");
+        int states = jdbcTemplate.update(
+                "DELETE FROM event_processing_state WHERE event_id IN (SELECT event_id FROM " + partition + ")");
+        int fingerprints = jdbcTemplate.update(
+                "DELETE FROM event_fingerprints WHERE (source_system_id, source_entity_id, content_hash) IN "
+                + "(SELECT source_system_id, source_entity_id, content_hash FROM " + partition + ")");
+        List<String> blobs = jdbcTemplate.queryForList(
+                "SELECT DISTINCT " + BLOB_HASH + " FROM " + partition + " WHERE " + BLOB_HASH + " IS NOT NULL", 
+                String.class);
+        
+        jdbcTemplate.execute("ALTER TABLE events DETACH PARTITION " + partition);
+        if (drop) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+        
+        Instant checkedAt = Instant.now();
+        List<String> unreferenced = unreferencedBlobs(blobs);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long deleted = unreferenced.stream()
+                        .filter(hash -> blobStore.deleteIfUnusedSince(hash, checkedAt))
+                        .count();
+                logger.info("{} partition {} ({} document chunks, {} processing states, {} fingerprints, "
+                           + "{} blobs removed)", drop ? "Dropped" : "Detached", partition, chunks, states, 
+                           fingerprints, deleted);
+            }
+        });
+    }
+    
+    private List<String> unreferencedBlobs(List<String> blobs) {
+        if (blobs.isEmpty()) {
+            return blobs;
+        }
+        Set<String> referenced = new HashSet<>(jdbcTemplate.queryForList(
+                REFERENCED_BLOBS_SQL, String.class, (Object) blobs.toArray(new String[0])));
+        return blobs.stream()
+                .filter(hash -> BlobStore.isValidHash(hash) && !referenced.contains(hash))
+                .toList();
+    }
+    
+    private String partitionName(YearMonth month) {
+        return "events_p" + month.format(PARTITION_MONTH);
+    }
+}
\ No newline at end of file
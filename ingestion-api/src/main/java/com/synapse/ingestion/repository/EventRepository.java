@@ -3,69 +3,268 @@ package com.synapse.ingestion.repository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.synapse.core.SynapseEvent;
+import com.synapse.core.json.RawPayloads;
+import com.synapse.ingestion.blob.PayloadOffloader;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import jakarta.annotation.PostConstruct;
 import org.postgresql.util.PGobject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @Repository
 public class EventRepository {
     
     private static final Logger logger = LoggerFactory.getLogger(EventRepository.class);
     
+    // source_system and event_type are stored as codes from the source_systems and event_types
+    // lookup tables; the events_decoded view has them as names. The event is only written if its
+    // (source system, source entity, content) fingerprint is new, which holds whatever its timestamp.
     private static final String INSERT_EVENT_SQL = """
+        WITH input AS (
+            SELECT ?::uuid AS event_id, ?::uuid AS correlation_id, ?::smallint AS source_system_id, 
+                   ?::varchar AS source_entity_id, ?::smallint AS event_type_id, 
+                   ?::timestamptz AS event_timestamp, ?::int AS version, ?::jsonb AS payload
+        ), fingerprint AS (
+            INSERT INTO event_fingerprints (source_system_id, source_entity_id, content_hash)
+            SELECT source_system_id, source_entity_id, md5(payload::text) FROM input
+            ON CONFLICT DO NOTHING
+            RETURNING 1
+        )
         INSERT INTO events (
-            event_id, correlation_id, source_system, source_entity_id, 
-            event_type, event_timestamp, version, payload
-        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            event_id, correlation_id, source_system_id, source_entity_id, 
+            event_type_id, event_timestamp, version, payload
+        )
+        SELECT event_id, correlation_id, source_system_id, source_entity_id, 
+               event_type_id, event_timestamp, version, payload
+        FROM input, fingerprint
+        ON CONFLICT DO NOTHING
+        """;
+    
+    // One multi-row INSERT for the whole list; RETURNING tells inserted rows apart from duplicates.
+    // Repeats of one fingerprint within the list are collapsed by DISTINCT ON.
+    private static final String INSERT_EVENTS_SQL = """
+        WITH input AS (
+            SELECT event_id, correlation_id, source_system_id, source_entity_id, event_type_id, 
+                   event_timestamp::timestamptz AS event_timestamp, version, payload::jsonb AS payload
+            FROM unnest(?::uuid[], ?::uuid[], ?::smallint[], ?::varchar[], 
+                        ?::smallint[], ?::text[], ?::int[], ?::text[]) 
+                 AS t(event_id, correlation_id, source_system_id, source_entity_id, 
+                      event_type_id, event_timestamp, version, payload)
+        ), fingerprints AS (
+            INSERT INTO event_fingerprints (source_system_id, source_entity_id, content_hash)
+            SELECT DISTINCT source_system_id, source_entity_id, md5(payload::text) FROM input
+            ON CONFLICT DO NOTHING
+            RETURNING source_system_id, source_entity_id, content_hash
+        )
+        INSERT INTO events (
+            event_id, correlation_id, source_system_id, source_entity_id, 
+            event_type_id, event_timestamp, version, payload
+        )
+        SELECT DISTINCT ON (f.source_system_id, f.source_entity_id, f.content_hash)
+               i.event_id, i.correlation_id, i.source_system_id, i.source_entity_id, 
+               i.event_type_id, i.event_timestamp, i.version, i.payload
+        FROM input i
+        JOIN fingerprints f ON f.source_system_id = i.source_system_id 
+                           AND f.source_entity_id = i.source_entity_id 
+                           AND f.content_hash = md5(i.payload::text)
+        ON CONFLICT DO NOTHING
+        RETURNING event_id
         """;
     
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
+    private final IngestionMetrics ingestionMetrics;
+    private final PayloadOffloader payloadOffloader;
+    private final CodeDictionary sourceSystemCodes;
+    private final CodeDictionary eventTypeCodes;
     
-    public EventRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+    public EventRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, IngestionMetrics ingestionMetrics, 
+                           PlatformTransactionManager transactionManager, PayloadOffloader payloadOffloader,
+                           @Value("${synapse.ingestion.dictionary.max-source-systems:100}") int maxSourceSystems,
+                           @Value("${synapse.ingestion.dictionary.max-event-types:2000}") int maxEventTypes) {
         this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = objectMapper;
+        this.ingestionMetrics = ingestionMetrics;
+        this.payloadOffloader = payloadOffloader;
+        
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sourceSystemCodes = new CodeDictionary("source_systems", jdbcTemplate, requiresNew, maxSourceSystems);
+        this.eventTypeCodes = new CodeDictionary("event_types", jdbcTemplate, requiresNew, maxEventTypes);
     }
     
-    public void save(SynapseEvent event) {
+    // Best effort: with the database down at startup the codes are loaded on first use instead,
+    // so spooled ingestion can still start
+    @PostConstruct
+    public void warmCodeCache() {
         try {
-            PGobject payloadJson = new PGobject();
-            payloadJson.setType("jsonb");
-            payloadJson.setValue(objectMapper.writeValueAsString(event.payload()));
+            sourceSystemCodes.refresh();
+            eventTypeCodes.refresh();
+            logger.info("Loaded {} source system and {} event type codes", 
+                       sourceSystemCodes.size(), eventTypeCodes.size());
+        } catch (DataAccessException e) {
+            logger.warn("Could not load source system and event type codes, loading on first use: {}", 
+                       e.getMessage());
+        }
+    }
+    
+    // Null when both names already have a code or their lookup table still has room for them
+    public String checkDictionaries(SynapseEvent event) {
+        if (!sourceSystemCodes.admits(event.sourceSystem())) {
+            return "sourceSystem: unknown source system and no room to add one";
+        }
+        if (!eventTypeCodes.admits(event.eventType())) {
+            return "eventType: unknown event type and no room to add one";
+        }
+        return null;
+    }
+    
+    // Returns false when the event was already stored, either under the same event ID or with
+    // identical content for the same source entity
+    public boolean save(SynapseEvent event) {
+        try {
+            int rowsAffected = jdbcTemplate.update(INSERT_EVENT_SQL, toInsertArguments(event));
             
-            int rowsAffected = jdbcTemplate.update(
-                INSERT_EVENT_SQL,
-                event.eventId(),
-                event.correlationId(),
-                event.sourceSystem(),
-                event.sourceEntityId(),
-                event.eventType(),
-                event.timestamp(),
-                event.version(),
-                payloadJson
-            );
+            if (rowsAffected > 1) {
+                throw new DataAccessException("Expected at most 1 row to be affected, but " + rowsAffected + " were affected") {};
+            }
             
-            if (rowsAffected != 1) {
-                throw new DataAccessException("Expected 1 row to be affected, but " + rowsAffected + " were affected") {};
+            if (rowsAffected == 0) {
+                logger.debug("Skipped duplicate event: {} with ID: {}", 
+                            event.eventType(), event.eventId());
+                return false;
             }
             
             logger.debug("Successfully saved event: {} with ID: {}", 
                         event.eventType(), event.eventId());
+            return true;
             
+        } catch (DataAccessException e) {
+            logger.error("Database error while saving event ID: {}", event.eventId(), e);
+            throw e;
+        }
+    }
+    
+    // Inserts all rows with one statement and returns the IDs that were actually inserted;
+    // the caller owns the surrounding transaction
+    public Set<UUID> saveAll(List<SynapseEvent> events) {
+        if (events.isEmpty()) {
+            return Set.of();
+        }
+        
+        // Resolve any new codes before the connection callback, which must not start a nested transaction
+        for (SynapseEvent event : events) {
+            sourceSystemCodes.codeOf(event.sourceSystem());
+            eventTypeCodes.codeOf(event.eventType());
+        }
+        
+        Set<UUID> inserted = jdbcTemplate.execute((ConnectionCallback<Set<UUID>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_EVENTS_SQL)) {
+                bindColumns(connection, statement, events);
+                
+                Set<UUID> ids = new HashSet<>(events.size());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        ids.add(resultSet.getObject(1, UUID.class));
+                    }
+                }
+                return ids;
+            }
+        });
+        
+        logger.debug("Successfully saved batch of {} events, {} duplicates skipped", 
+                    inserted.size(), events.size() - inserted.size());
+        return inserted;
+    }
+    
+    private void bindColumns(Connection connection, PreparedStatement statement, List<SynapseEvent> events) 
+            throws SQLException {
+        int size = events.size();
+        UUID[] eventIds = new UUID[size];
+        UUID[] correlationIds = new UUID[size];
+        Short[] sourceSystems = new Short[size];
+        String[] sourceEntityIds = new String[size];
+        Short[] eventTypes = new Short[size];
+        String[] timestamps = new String[size];
+        Integer[] versions = new Integer[size];
+        String[] payloads = new String[size];
+        
+        for (int i = 0; i < size; i++) {
+            SynapseEvent event = events.get(i);
+            eventIds[i] = event.eventId();
+            correlationIds[i] = event.correlationId();
+            sourceSystems[i] = sourceSystemCodes.codeOf(event.sourceSystem());
+            sourceEntityIds[i] = event.sourceEntityId();
+            eventTypes[i] = eventTypeCodes.codeOf(event.eventType());
+            timestamps[i] = event.timestamp().toString();
+            versions[i] = event.version();
+            payloads[i] = toJson(event);
+        }
+        
+        statement.setArray(1, connection.createArrayOf("uuid", eventIds));
+        statement.setArray(2, connection.createArrayOf("uuid", correlationIds));
+        statement.setArray(3, connection.createArrayOf("int2", sourceSystems));
+        statement.setArray(4, connection.createArrayOf("varchar", sourceEntityIds));
+        statement.setArray(5, connection.createArrayOf("int2", eventTypes));
+        statement.setArray(6, connection.createArrayOf("text", timestamps));
+        statement.setArray(7, connection.createArrayOf("int4", versions));
+        statement.setArray(8, connection.createArrayOf("text", payloads));
+    }
+    
+    private Object[] toInsertArguments(SynapseEvent event) {
+        return new Object[] {
+            event.eventId(),
+            event.correlationId(),
+            sourceSystemCodes.codeOf(event.sourceSystem()),
+            event.sourceEntityId(),
+            eventTypeCodes.codeOf(event.eventType()),
+            // The driver cannot bind an Instant
+            event.timestamp().atOffset(ZoneOffset.UTC),
+            event.version(),
+            toJsonb(event)
+        };
+    }
+    
+    private String toJson(SynapseEvent event) {
+        try {
+            String json = RawPayloads.toJson(event.payload(), objectMapper);
+            // Character count, which is the byte size for the mostly ASCII payloads we get
+            ingestionMetrics.recordPayloadSize(event, json.length());
+            return payloadOffloader.offload(json);
         } catch (JsonProcessingException e) {
             logger.error("Failed to serialize event payload for event ID: {}", event.eventId(), e);
             throw new RuntimeException("Failed to serialize event payload", e);
+        }
+    }
+    
+    private PGobject toJsonb(SynapseEvent event) {
+        try {
+            PGobject payloadJson = new PGobject();
+            payloadJson.setType("jsonb");
+            payloadJson.setValue(toJson(event));
+            return payloadJson;
+            
         } catch (SQLException e) {
             logger.error("Failed to set payload as JSONB for event ID: {}", event.eventId(), e);
             throw new RuntimeException("Failed to set payload as JSONB", e);
-        } catch (DataAccessException e) {
-            logger.error("Database error while saving event ID: {}", event.eventId(), e);
-            throw e;
         }
     }
 }
\ No newline at end of file
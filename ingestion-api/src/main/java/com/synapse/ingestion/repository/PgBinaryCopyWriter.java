@@ -0,0 +1,93 @@
+package com.synapse.ingestion.repository;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+// Writes rows in PostgreSQL's binary COPY format (see the COPY "Binary Format" section of the docs)
+class PgBinaryCopyWriter {
+    
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    
+    // PostgreSQL timestamps count microseconds from 2000-01-01T00:00:00Z
+    private static final long PG_EPOCH_SECONDS = 946_684_800L;
+    
+    private static final byte JSONB_VERSION = 1;
+    
+    private final DataOutputStream out;
+    
+    PgBinaryCopyWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+    
+    void writeHeader() throws IOException {
+        out.write(SIGNATURE);
+        out.writeInt(0); // flags
+        out.writeInt(0); // header extension length
+    }
+    
+    void startRow(int fieldCount) throws IOException {
+        out.writeShort(fieldCount);
+    }
+    
+    void writeUuid(UUID value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(16);
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+    
+    void writeText(String value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    void writeTimestamptz(Instant value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        long micros = (value.getEpochSecond() - PG_EPOCH_SECONDS) * 1_000_000L + value.getNano() / 1_000;
+        out.writeInt(8);
+        out.writeLong(micros);
+    }
+    
+    void writeInt(Integer value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(4);
+        out.writeInt(value);
+    }
+    
+    void writeJsonb(byte[] json) throws IOException {
+        if (json == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(json.length + 1);
+        out.writeByte(JSONB_VERSION);
+        out.write(json);
+    }
+    
+    void writeTrailer() throws IOException {
+        out.writeShort(-1);
+        out.flush();
+    }
+    
+    private void writeNull() throws IOException {
+        out.writeInt(-1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.synapse.ingestion.service;
+
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.IngestReceipt;
+import com.synapse.core.dto.IngestResult;
+import com.synapse.core.dto.IngestStatus;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Accepts single events without waiting for the database: each submission gets a receipt that is
+// completed when the spool or group commit buffer finishes the write, or by a bounded worker pool
+// when events are written directly. Callers look receipts up later to reconcile failures.
+// Queued events live in memory only, so pair this with the spool when accepted events must survive a crash.
+@Service
+public class AsyncIngestionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncIngestionService.class);
+    
+    @Value("${synapse.ingestion.async.worker-threads:4}")
+    private int workerThreads;
+    
+    @Value("${synapse.ingestion.async.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${synapse.ingestion.async.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+    
+    private final EventIngestionService eventIngestionService;
+    private final IngestionMetrics ingestionMetrics;
+    private final MeterRegistry meterRegistry;
+    private final Map<UUID, Receipt> receipts;
+    
+    private ThreadPoolExecutor executor;
+    
+    public AsyncIngestionService(EventIngestionService eventIngestionService, IngestionMetrics ingestionMetrics, 
+                                 MeterRegistry meterRegistry, 
+                                 @Value("${synapse.ingestion.async.receipt-retention:100000}") int receiptRetention) {
+        this.eventIngestionService = eventIngestionService;
+        this.ingestionMetrics = ingestionMetrics;
+        this.meterRegistry = meterRegistry;
+        // Oldest receipts are dropped first; retention should stay well above queue-capacity so
+        // pending receipts are not the ones evicted
+        this.receipts = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Receipt> eldest) {
+                return size() > receiptRetention;
+            }
+        };
+    }
+    
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS, 
+                                          new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "async-ingest-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Gauge.builder("synapse.ingestion.async.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Accepted events waiting for an async ingest worker")
+                .register(meterRegistry);
+        Gauge.builder("synapse.ingestion.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Async ingest workers currently writing an event directly")
+                .register(meterRegistry);
+    }
+    
+    // Drains what is already queued before the database connections go away
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            List<Runnable> dropped = executor.shutdownNow();
+            logger.warn("Async ingest shut down with {} events still queued", dropped.size());
+        }
+    }
+    
+    // startNanos is when the request started, so end-to-end latency covers the time spent queued.
+    // The event must already have passed EventIngestionService.validateEvent.
+    public IngestReceipt submit(SynapseEvent event, long startNanos) {
+        Receipt receipt = new Receipt(UUID.randomUUID(), event.eventId(), Instant.now());
+        synchronized (receipts) {
+            receipts.put(receipt.receiptId, receipt);
+        }
+        
+        try {
+            // The spool and the group commit buffer complete a future once the event is written, so
+            // the receipt is completed from it; only direct writes need a worker to wait on them
+            if (eventIngestionService.writesInBackground()) {
+                eventIngestionService.submitValidatedEvent(event)
+                        .whenComplete((result, error) -> complete(receipt, event, startNanos, result, error));
+            } else {
+                executor.execute(() -> process(receipt, event, startNanos));
+            }
+        } catch (RejectedExecutionException e) {
+            forget(receipt);
+            throw new IngestionOverloadedException("Async ingest queue is full");
+        } catch (RuntimeException e) {
+            forget(receipt);
+            throw e;
+        }
+        return receipt.toDto();
+    }
+    
+    public IngestReceipt lookup(UUID receiptId) {
+        Receipt receipt;
+        synchronized (receipts) {
+            receipt = receipts.get(receiptId);
+        }
+        return receipt != null ? receipt.toDto() : IngestReceipt.unknown(receiptId);
+    }
+    
+    public List<IngestReceipt> lookup(List<UUID> receiptIds) {
+        return receiptIds.stream().map(this::lookup).toList();
+    }
+    
+    private void process(Receipt receipt, SynapseEvent event, long startNanos) {
+        IngestResult result = null;
+        Throwable error = null;
+        try {
+            result = eventIngestionService.ingestValidatedEvent(event);
+        } catch (Exception e) {
+            error = e;
+        }
+        complete(receipt, event, startNanos, result, error);
+    }
+    
+    private void complete(Receipt receipt, SynapseEvent event, long startNanos, IngestResult result, Throwable error) {
+        IngestStatus status = IngestStatus.FAILED;
+        String message;
+        if (error == null) {
+            status = result.status();
+            message = result.message();
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                message = "Timed out waiting for the event to be written";
+            } else {
+                message = cause.getMessage();
+            }
+            if (!(cause instanceof IngestionOverloadedException)) {
+                logger.error("Async ingest failed for event: {} with ID: {}", event.eventType(), event.eventId(), cause);
+            }
+        }
+        receipt.complete(status, message);
+        ingestionMetrics.recordEndToEnd(event, status, System.nanoTime() - startNanos);
+    }
+    
+    private void forget(Receipt receipt) {
+        synchronized (receipts) {
+            receipts.remove(receipt.receiptId);
+        }
+    }
+    
+    private static class Receipt {
+        
+        private final UUID receiptId;
+        private final UUID eventId;
+        private final Instant submittedAt;
+        private volatile Outcome outcome;
+        
+        Receipt(UUID receiptId, UUID eventId, Instant submittedAt) {
+            this.receiptId = receiptId;
+            this.eventId = eventId;
+            this.submittedAt = submittedAt;
+        }
+        
+        void complete(IngestStatus status, String message) {
+            outcome = new Outcome(status, message, Instant.now());
+        }
+        
+        IngestReceipt toDto() {
+            Outcome done = outcome;
+            if (done == null) {
+                return new IngestReceipt(receiptId, eventId, IngestReceipt.State.PENDING, null, null, submittedAt, null);
+            }
+            return new IngestReceipt(receiptId, eventId, IngestReceipt.State.COMPLETED, 
+                                     done.status, done.message, submittedAt, done.completedAt);
+        }
+        
+        private record Outcome(IngestStatus status, String message, Instant completedAt) {
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.synapse.ingestion.service;
+
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.IngestStatus;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import com.synapse.ingestion.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+public class EventBatchWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventBatchWriter.class);
+    
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestionMetrics ingestionMetrics;
+    
+    public EventBatchWriter(EventRepository eventRepository, TransactionTemplate transactionTemplate, 
+                            IngestionMetrics ingestionMetrics) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ingestionMetrics = ingestionMetrics;
+    }
+    
+    public List<WriteOutcome> write(List<SynapseEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        
+        try {
+            Set<UUID> inserted = transactionTemplate.execute(status -> eventRepository.saveAll(events));
+            
+            List<WriteOutcome> outcomes = new ArrayList<>(events.size());
+            for (SynapseEvent event : events) {
+                // remove() so a second copy of the same event ID in one batch reports as a duplicate
+                outcomes.add(inserted.remove(event.eventId()) ? WriteOutcome.CREATED : WriteOutcome.DUPLICATE);
+            }
+            return outcomes;
+            
+        } catch (Exception e) {
+            // One bad row aborts the whole batch transaction, so retry row by row to isolate it
+            ingestionMetrics.recordDatabaseError("batch_insert", e);
+            logger.warn("Batch insert of {} events failed, retrying individually: {}", 
+                       events.size(), e.getMessage());
+            return writeIndividually(events);
+        }
+    }
+    
+    private List<WriteOutcome> writeIndividually(List<SynapseEvent> events) {
+        List<WriteOutcome> outcomes = new ArrayList<>(events.size());
+        
+        for (SynapseEvent event : events) {
+            try {
+                Boolean inserted = transactionTemplate.execute(status -> eventRepository.save(event));
+                outcomes.add(Boolean.TRUE.equals(inserted) ? WriteOutcome.CREATED : WriteOutcome.DUPLICATE);
+            } catch (Exception e) {
+                ingestionMetrics.recordDatabaseError("insert", e);
+                logger.error("Failed to persist event: {} with ID: {}", 
+                            event.eventType(), event.eventId(), e);
+                outcomes.add(WriteOutcome.failed(e.getMessage()));
+            }
+        }
+        
+        return outcomes;
+    }
+    
+    public record WriteOutcome(IngestStatus status, String error) {
+        
+        static final WriteOutcome CREATED = new WriteOutcome(IngestStatus.CREATED, null);
+        static final WriteOutcome DUPLICATE = new WriteOutcome(IngestStatus.DUPLICATE, null);
+        
+        static WriteOutcome failed(String error) {
+            return new WriteOutcome(IngestStatus.FAILED, error);
+        }
+        
+        public boolean isSuccess() {
+            return status != IngestStatus.FAILED;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.synapse.ingestion.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.BulkLoadResponse;
+import com.synapse.ingestion.repository.EventBulkLoader;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+@Service
+public class EventBulkLoadService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventBulkLoadService.class);
+    
+    @Value("${synapse.ingestion.bulk-load.chunk-size:50000}")
+    private int chunkSize;
+    
+    private final EventBulkLoader eventBulkLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    
+    public EventBulkLoadService(EventBulkLoader eventBulkLoader, TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper, Validator validator) {
+        this.eventBulkLoader = eventBulkLoader;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+    
+    // Reads newline-delimited SynapseEvent JSON without materializing the whole input
+    public BulkLoadResponse load(InputStream ndjson) throws IOException {
+        try (MappingIterator<SynapseEvent> events = objectMapper.readerFor(SynapseEvent.class).readValues(ndjson)) {
+            return load(events);
+        }
+    }
+    
+    // Each chunk commits on its own, so an interrupted backfill keeps what it already loaded
+    // and can simply be re-run: already loaded event IDs are skipped by the merge
+    public BulkLoadResponse load(Iterator<SynapseEvent> events) {
+        long start = System.nanoTime();
+        ValidatingIterator validEvents = new ValidatingIterator(events);
+        
+        long staged = 0;
+        long inserted = 0;
+        long rejected = 0;
+        while (validEvents.hasNext()) {
+            EventBulkLoader.ChunkResult chunk = transactionTemplate.execute(
+                    status -> eventBulkLoader.loadChunk(validEvents, chunkSize));
+            staged += chunk.staged();
+            inserted += chunk.inserted();
+            rejected += chunk.rejected();
+            
+            logger.info("Bulk load progress: {} events staged, {} inserted", staged, inserted);
+        }
+        
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        BulkLoadResponse response = new BulkLoadResponse(
+                staged + validEvents.rejected, inserted, staged - inserted - rejected, validEvents.rejected + rejected, 
+                durationMs);
+        
+        logger.info("Bulk load finished: {} received, {} inserted, {} duplicates, {} rejected in {} ms",
+                   response.received(), response.inserted(), response.duplicates(),
+                   response.rejected(), durationMs);
+        return response;
+    }
+    
+    // Drops events that fail bean validation instead of letting them abort a whole COPY chunk
+    private class ValidatingIterator implements Iterator<SynapseEvent> {
+        
+        private final Iterator<SynapseEvent> delegate;
+        private SynapseEvent next;
+        private long rejected;
+        
+        ValidatingIterator(Iterator<SynapseEvent> delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (next == null && delegate.hasNext()) {
+                SynapseEvent candidate = delegate.next();
+                if (candidate != null && validator.validate(candidate).isEmpty()) {
+                    next = candidate;
+                } else {
+                    rejected++;
+                    logger.warn("Skipping invalid event in bulk load: {}",
+                               candidate != null ? candidate.eventId() : null);
+                }
+            }
+            return next != null;
+        }
+        
+        @Override
+        public SynapseEvent next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            SynapseEvent event = next;
+            next = null;
+            return event;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.synapse.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.json.RawPayloads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Remembers recently stored (source system, source entity, content) keys so re-sent events can be
+// answered without a database round trip. Misses fall through to ON CONFLICT DO NOTHING.
+// Callers compute a key once per event and reuse it for the lookup and for remember().
+@Component
+public class EventDedupCache {
+    
+    // Each stripe is its own LRU under its own lock, so request threads rarely wait on each other
+    private static final int STRIPES = 16;
+    
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    
+    @Value("${synapse.ingestion.dedup.enabled:true}")
+    private boolean enabled;
+    
+    private final ObjectMapper objectMapper;
+    private final Map<String, Boolean>[] stripes;
+    
+    @SuppressWarnings("unchecked")
+    public EventDedupCache(ObjectMapper objectMapper,
+                           @Value("${synapse.ingestion.dedup.cache-size:100000}") int cacheSize) {
+        this.objectMapper = objectMapper;
+        this.stripes = new Map[STRIPES];
+        int stripeSize = Math.max(1, cacheSize / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > stripeSize;
+                }
+            };
+        }
+    }
+    
+    public String keyOf(SynapseEvent event) {
+        if (!enabled) {
+            return null;
+        }
+        
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        try {
+            // Tree payloads are serialized straight into the digest, without building their text
+            String raw = RawPayloads.rawJson(event.payload());
+            if (raw != null) {
+                digest.update(raw.getBytes(StandardCharsets.UTF_8));
+            } else {
+                objectMapper.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), event.payload());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compute content hash for event " + event.eventId(), e);
+        }
+        return event.sourceSystem() + '\u0000' + event.sourceEntityId() + '\u0000' +
+               Base64.getEncoder().encodeToString(digest.digest());
+    }
+    
+    public boolean isKnownDuplicate(String key) {
+        if (key == null) {
+            return false;
+        }
+        Map<String, Boolean> stripe = stripeOf(key);
+        synchronized (stripe) {
+            return stripe.get(key) != null;
+        }
+    }
+    
+    // Only record keys once the event is durable, otherwise a failed write would hide its retry
+    public void remember(String key) {
+        if (key == null) {
+            return;
+        }
+        Map<String, Boolean> stripe = stripeOf(key);
+        synchronized (stripe) {
+            stripe.put(key, Boolean.TRUE);
+        }
+    }
+    
+    private Map<String, Boolean> stripeOf(String key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+}
\ No newline at end of file
@@ -1,11 +1,32 @@
 package com.synapse.ingestion.service;
 
 import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.BatchIngestResponse;
+import com.synapse.core.dto.IngestResult;
+import com.synapse.core.dto.IngestStatus;
+import com.synapse.core.json.RawPayloads;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import com.synapse.ingestion.metrics.LogSampler;
 import com.synapse.ingestion.repository.EventRepository;
+import com.synapse.ingestion.spool.EventSpool;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -13,24 +34,311 @@ public class EventIngestionService {
     
     private static final Logger logger = LoggerFactory.getLogger(EventIngestionService.class);
     
+    @Value("${synapse.ingestion.group-commit.ack-timeout-ms:30000}")
+    private long groupCommitAckTimeoutMs;
+    
+    @Value("${synapse.ingestion.spool.ack-timeout-ms:5000}")
+    private long spoolAckTimeoutMs;
+    
+    @Value("${synapse.ingestion.payload.validate:false}")
+    private boolean validatePayloads;
+    
     private final EventRepository eventRepository;
+    private final EventBatchWriter eventBatchWriter;
+    private final GroupCommitBuffer groupCommitBuffer;
+    private final EventSpool eventSpool;
+    private final EventDedupCache eventDedupCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final IngestionMetrics ingestionMetrics;
+    private final LogSampler ingestedLog;
     
-    public EventIngestionService(EventRepository eventRepository) {
+    public EventIngestionService(EventRepository eventRepository, EventBatchWriter eventBatchWriter, 
+                                GroupCommitBuffer groupCommitBuffer, EventSpool eventSpool, 
+                                EventDedupCache eventDedupCache, TransactionTemplate transactionTemplate, 
+                                Validator validator, IngestionMetrics ingestionMetrics,
+                                @Value("${synapse.ingestion.logging.sample-rate:1000}") int logSampleRate) {
         this.eventRepository = eventRepository;
+        this.eventBatchWriter = eventBatchWriter;
+        this.groupCommitBuffer = groupCommitBuffer;
+        this.eventSpool = eventSpool;
+        this.eventDedupCache = eventDedupCache;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.ingestionMetrics = ingestionMetrics;
+        this.ingestedLog = new LogSampler(logSampleRate);
     }
     
-    public void ingestEvent(SynapseEvent event) {
+    // Not transactional itself: in group-commit mode the caller only waits for the flusher's
+    // commit and must not hold a pooled connection while doing so
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IngestResult ingestEvent(SynapseEvent event) {
         logger.debug("Ingesting event: {} from {} with entity ID: {}", 
                     event.eventType(), event.sourceSystem(), event.sourceEntityId());
         
+        String violations = timedValidate(event);
+        if (violations != null) {
+            logger.warn("Rejected event: {} with ID: {}: {}", event.eventType(), event.eventId(), violations);
+            return new IngestResult(0, event.eventId(), IngestStatus.REJECTED, violations);
+        }
+        return persist(event);
+    }
+    
+    // For callers that already ran validateEvent before answering their client
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IngestResult ingestValidatedEvent(SynapseEvent event) {
+        return persist(event);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String validateEvent(SynapseEvent event) {
+        return timedValidate(event);
+    }
+    
+    // Whether submitValidatedEvent can be used: only the spool and the group commit buffer hand
+    // back a future, a direct write occupies the calling thread until it commits
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean writesInBackground() {
+        return eventSpool.isEnabled() || groupCommitBuffer.isEnabled();
+    }
+    
+    // Non-blocking counterpart of ingestValidatedEvent. The result completes on the spool's or the
+    // flusher's thread, so callbacks attached to it must be cheap. A full spool or queue still
+    // throws IngestionOverloadedException right away.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<IngestResult> submitValidatedEvent(SynapseEvent event) {
+        String dedupKey = eventDedupCache.keyOf(event);
+        if (eventDedupCache.isKnownDuplicate(dedupKey)) {
+            return CompletableFuture.completedFuture(new IngestResult(0, event.eventId(), IngestStatus.DUPLICATE, null));
+        }
+        
+        long persistStart = System.nanoTime();
+        CompletableFuture<IngestStatus> written;
+        if (eventSpool.isEnabled()) {
+            written = eventSpool.append(event)
+                    .thenApply(ignored -> IngestStatus.ACCEPTED)
+                    .orTimeout(spoolAckTimeoutMs, TimeUnit.MILLISECONDS);
+        } else if (groupCommitBuffer.isEnabled()) {
+            written = groupCommitBuffer.submit(event)
+                    .thenApply(outcome -> {
+                        if (!outcome.isSuccess()) {
+                            throw new IllegalStateException(outcome.error());
+                        }
+                        eventDedupCache.remember(dedupKey);
+                        return outcome.status();
+                    })
+                    .orTimeout(groupCommitAckTimeoutMs, TimeUnit.MILLISECONDS);
+        } else {
+            throw new IllegalStateException("Neither the spool nor group commit is enabled");
+        }
+        
+        return written.thenApply(status -> {
+            ingestionMetrics.recordPersist(event, System.nanoTime() - persistStart);
+            if (ingestedLog.sample()) {
+                logger.info("Ingested event: {} with ID: {} ({}), logging 1 in {} events", 
+                           event.eventType(), event.eventId(), status, ingestedLog.rate());
+            }
+            return new IngestResult(0, event.eventId(), status, null);
+        });
+    }
+    
+    private IngestResult persist(SynapseEvent event) {
+        String dedupKey = eventDedupCache.keyOf(event);
+        if (eventDedupCache.isKnownDuplicate(dedupKey)) {
+            logger.debug("Dropped duplicate event: {} with ID: {}", event.eventType(), event.eventId());
+            return new IngestResult(0, event.eventId(), IngestStatus.DUPLICATE, null);
+        }
+        
+        long persistStart = System.nanoTime();
         try {
-            eventRepository.save(event);
-            logger.info("Successfully persisted event: {} with ID: {}", 
-                       event.eventType(), event.eventId());
+            IngestStatus status;
+            if (eventSpool.isEnabled()) {
+                awaitSpool(event);
+                status = IngestStatus.ACCEPTED;
+            } else if (groupCommitBuffer.isEnabled()) {
+                status = awaitGroupCommit(event);
+            } else {
+                status = saveDirectly(event);
+            }
+            ingestionMetrics.recordPersist(event, System.nanoTime() - persistStart);
+            // Spooled events are remembered by the spool once they reach the database
+            if (status != IngestStatus.ACCEPTED) {
+                eventDedupCache.remember(dedupKey);
+            }
+            
+            if (ingestedLog.sample()) {
+                logger.info("Ingested event: {} with ID: {} ({}), logging 1 in {} events", 
+                           event.eventType(), event.eventId(), status, ingestedLog.rate());
+            }
+            return new IngestResult(0, event.eventId(), status, null);
+        } catch (IngestionOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to persist event: {} with ID: {}", 
                         event.eventType(), event.eventId(), e);
             throw new RuntimeException("Failed to persist event", e);
         }
     }
+    
+    private IngestStatus saveDirectly(SynapseEvent event) {
+        try {
+            Boolean inserted = transactionTemplate.execute(tx -> eventRepository.save(event));
+            return Boolean.TRUE.equals(inserted) ? IngestStatus.CREATED : IngestStatus.DUPLICATE;
+        } catch (RuntimeException e) {
+            ingestionMetrics.recordDatabaseError("insert", e);
+            throw e;
+        }
+    }
+    
+    // The spool drains in append order, so while it is enabled every event, single or batched, goes through it
+    private void awaitSpool(SynapseEvent event) throws Exception {
+        try {
+            eventSpool.append(event).get(spoolAckTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for spool sync of event " + event.eventId(), e);
+        }
+    }
+    
+    private IngestStatus awaitGroupCommit(SynapseEvent event) throws Exception {
+        EventBatchWriter.WriteOutcome outcome;
+        try {
+            outcome = groupCommitBuffer.submit(event).get(groupCommitAckTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for group commit of event " + event.eventId(), e);
+        }
+        
+        if (!outcome.isSuccess()) {
+            throw new IllegalStateException(outcome.error());
+        }
+        return outcome.status();
+    }
+    
+    // The batch writer manages its own transactions so a failed batch can be retried row by row.
+    // With the spool enabled the batch is appended to it instead, like single events.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchIngestResponse ingestBatch(List<SynapseEvent> events) {
+        logger.debug("Ingesting batch of {} events", events.size());
+        
+        IngestResult[] results = new IngestResult[events.size()];
+        List<SynapseEvent> validEvents = new ArrayList<>(events.size());
+        List<Integer> validIndexes = new ArrayList<>(events.size());
+        List<String> dedupKeys = new ArrayList<>(events.size());
+        
+        for (int i = 0; i < events.size(); i++) {
+            SynapseEvent event = events.get(i);
+            String violations = timedValidate(event);
+            
+            if (violations != null) {
+                results[i] = new IngestResult(i, event != null ? event.eventId() : null, 
+                                              IngestStatus.REJECTED, violations);
+                continue;
+            }
+            
+            String dedupKey = eventDedupCache.keyOf(event);
+            if (eventDedupCache.isKnownDuplicate(dedupKey)) {
+                results[i] = new IngestResult(i, event.eventId(), IngestStatus.DUPLICATE, null);
+            } else {
+                validEvents.add(event);
+                validIndexes.add(i);
+                dedupKeys.add(dedupKey);
+            }
+        }
+        
+        long persistStart = System.nanoTime();
+        List<EventBatchWriter.WriteOutcome> outcomes = eventSpool.isEnabled() 
+                ? spoolBatch(validEvents) : eventBatchWriter.write(validEvents);
+        if (!validEvents.isEmpty()) {
+            ingestionMetrics.recordBatchPersist(validEvents.size(), System.nanoTime() - persistStart);
+        }
+        
+        for (int i = 0; i < outcomes.size(); i++) {
+            int index = validIndexes.get(i);
+            EventBatchWriter.WriteOutcome outcome = outcomes.get(i);
+            // Spooled events are remembered by the spool once they reach the database
+            if (outcome.isSuccess() && outcome.status() != IngestStatus.ACCEPTED) {
+                eventDedupCache.remember(dedupKeys.get(i));
+            }
+            results[index] = new IngestResult(index, validEvents.get(i).eventId(), 
+                                              outcome.status(), outcome.error());
+        }
+        
+        BatchIngestResponse response = BatchIngestResponse.of(List.of(results));
+        logger.info("Batch ingestion finished: {} received, {} succeeded, {} failed", 
+                   response.received(), response.succeeded(), response.failed());
+        return response;
+    }
+    
+    // Appends every event before waiting, so the whole batch shares the spool's next fsync. A spool
+    // that is full before anything was appended is overload, as for single events; one that fills up
+    // part way fails the rest of the batch.
+    private List<EventBatchWriter.WriteOutcome> spoolBatch(List<SynapseEvent> events) {
+        List<CompletableFuture<Void>> acks = new ArrayList<>(events.size());
+        for (SynapseEvent event : events) {
+            try {
+                acks.add(eventSpool.append(event));
+            } catch (IngestionOverloadedException e) {
+                if (acks.isEmpty()) {
+                    throw e;
+                }
+                acks.add(CompletableFuture.failedFuture(e));
+            } catch (RuntimeException e) {
+                acks.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(spoolAckTimeoutMs);
+        List<EventBatchWriter.WriteOutcome> outcomes = new ArrayList<>(events.size());
+        for (int i = 0; i < acks.size(); i++) {
+            try {
+                acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                outcomes.add(new EventBatchWriter.WriteOutcome(IngestStatus.ACCEPTED, null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                outcomes.add(EventBatchWriter.WriteOutcome.failed("Interrupted waiting for spool sync"));
+            } catch (ExecutionException e) {
+                logger.error("Failed to spool event: {} with ID: {}", 
+                            events.get(i).eventType(), events.get(i).eventId(), e.getCause());
+                outcomes.add(EventBatchWriter.WriteOutcome.failed(e.getCause().getMessage()));
+            } catch (TimeoutException e) {
+                outcomes.add(EventBatchWriter.WriteOutcome.failed("Timed out waiting for spool sync"));
+            }
+        }
+        return outcomes;
+    }
+    
+    private String timedValidate(SynapseEvent event) {
+        long start = System.nanoTime();
+        String violations = validate(event);
+        ingestionMetrics.recordValidate(event, System.nanoTime() - start);
+        return violations;
+    }
+    
+    private String validate(SynapseEvent event) {
+        if (event == null) {
+            return "Event must not be null";
+        }
+        
+        Set<ConstraintViolation<SynapseEvent>> violations = validator.validate(event);
+        if (violations.isEmpty()) {
+            String dictionaryViolation = eventRepository.checkDictionaries(event);
+            return dictionaryViolation != null ? dictionaryViolation : validatePayload(event);
+        }
+        
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    // Opt-in, since passthrough payloads are otherwise stored without being inspected
+    private String validatePayload(SynapseEvent event) {
+        if (validatePayloads && !RawPayloads.isObject(event.payload())) {
+            return "payload: must be a JSON object";
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.synapse.ingestion.service;
+
+import com.synapse.ingestion.repository.EventPartitionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+// Keeps monthly events partitions created ahead of time and expires old ones
+@Service
+public class EventPartitionManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventPartitionManager.class);
+    
+    @Value("${synapse.ingestion.partitions.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${synapse.ingestion.partitions.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Value("${synapse.ingestion.partitions.months-behind:1}")
+    private int monthsBehind;
+    
+    // 0 keeps everything
+    @Value("${synapse.ingestion.partitions.retention-months:0}")
+    private int retentionMonths;
+    
+    // Detached partitions stay around as plain tables for archiving; dropped ones are gone
+    @Value("${synapse.ingestion.partitions.drop-expired:false}")
+    private boolean dropExpired;
+    
+    private final EventPartitionRepository eventPartitionRepository;
+    
+    public EventPartitionManager(EventPartitionRepository eventPartitionRepository) {
+        this.eventPartitionRepository = eventPartitionRepository;
+    }
+    
+    // A retention shorter than months-behind would expire partitions that are created again the next day
+    @PostConstruct
+    public void validateSettings() {
+        if (retentionMonths > 0 && retentionMonths < monthsBehind) {
+            throw new IllegalStateException("synapse.ingestion.partitions.retention-months (" + retentionMonths 
+                    + ") must be at least months-behind (" + monthsBehind + ")");
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+    
+    @Scheduled(cron = "${synapse.ingestion.partitions.maintenance-cron:0 0 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+            createUpcomingPartitions(currentMonth);
+            if (retentionMonths > 0) {
+                expireOldPartitions(currentMonth);
+            }
+            
+            if (eventPartitionRepository.defaultPartitionHasRows()) {
+                logger.warn("events_default holds rows outside the monthly partitions");
+            }
+            
+        } catch (Exception e) {
+            logger.error("Events partition maintenance failed", e);
+        }
+    }
+    
+    private void createUpcomingPartitions(YearMonth currentMonth) {
+        for (int offset = -monthsBehind; offset <= monthsAhead; offset++) {
+            YearMonth month = currentMonth.plusMonths(offset);
+            if (eventPartitionRepository.createMonthlyPartition(month)) {
+                logger.info("Created events partition for {}", month);
+            }
+        }
+    }
+    
+    private void expireOldPartitions(YearMonth currentMonth) {
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        
+        for (YearMonth month : eventPartitionRepository.findMonthlyPartitions()) {
+            if (month.isBefore(oldestKept)) {
+                eventPartitionRepository.detachPartition(month, dropExpired);
+            }
+        }
+    }
+}
\ No newline at end of file
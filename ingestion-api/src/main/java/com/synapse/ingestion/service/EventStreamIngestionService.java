@@ -0,0 +1,218 @@
+package com.synapse.ingestion.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.BatchIngestResponse;
+import com.synapse.core.dto.IngestResult;
+import com.synapse.core.dto.StreamIngestResponse;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Ingests newline-delimited SynapseEvent JSON. Only the current chunk and one line of at most
+// max-line-bytes are held in memory, so uploads of any size run in constant memory.
+@Service
+public class EventStreamIngestionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamIngestionService.class);
+    
+    @Value("${synapse.ingestion.stream.chunk-size:500}")
+    private int chunkSize;
+    
+    // Bounds the response as well: a bad export should not turn into a huge list of line numbers
+    @Value("${synapse.ingestion.stream.max-reported-lines:1000}")
+    private int maxReportedLines;
+    
+    // Longer lines are rejected without being buffered
+    @Value("${synapse.ingestion.stream.max-line-bytes:1048576}")
+    private int maxLineBytes;
+    
+    private final EventIngestionService eventIngestionService;
+    private final ObjectReader eventReader;
+    private final IngestionMetrics ingestionMetrics;
+    
+    public EventStreamIngestionService(EventIngestionService eventIngestionService, ObjectMapper objectMapper, 
+                                       IngestionMetrics ingestionMetrics) {
+        this.eventIngestionService = eventIngestionService;
+        this.eventReader = objectMapper.readerFor(SynapseEvent.class);
+        this.ingestionMetrics = ingestionMetrics;
+    }
+    
+    public StreamIngestResponse ingest(InputStream ndjson) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        List<SynapseEvent> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        
+        // Each line is parsed on its own, straight from its bytes, so a malformed line can be reported
+        // and skipped without losing the parser position for the rest of the stream
+        LineReader reader = new LineReader(ndjson, maxLineBytes);
+        long lineNumber = 0;
+        while (reader.next()) {
+            lineNumber++;
+            if (reader.isBlank()) {
+                continue;
+            }
+            progress.received++;
+            
+            if (reader.isTooLong()) {
+                logger.debug("Rejected NDJSON line {}: longer than {} bytes", lineNumber, maxLineBytes);
+                progress.reject(lineNumber);
+                continue;
+            }
+            
+            try {
+                long parseStart = System.nanoTime();
+                SynapseEvent event = eventReader.readValue(reader.line(), 0, reader.length());
+                ingestionMetrics.recordDeserialize(event, System.nanoTime() - parseStart);
+                chunk.add(event);
+                chunkLines.add(lineNumber);
+            } catch (JsonProcessingException e) {
+                logger.debug("Rejected malformed NDJSON line {} at column {}: {}", lineNumber, 
+                            e.getLocation() != null ? e.getLocation().getColumnNr() : -1, e.getOriginalMessage());
+                progress.reject(lineNumber);
+            }
+            
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, chunkLines, progress);
+            }
+        }
+        flush(chunk, chunkLines, progress);
+        
+        long elapsedNanos = System.nanoTime() - start;
+        double eventsPerSecond = elapsedNanos > 0 ? progress.received * 1_000_000_000d / elapsedNanos : 0;
+        
+        logger.info("Stream ingestion finished: {} received, {} succeeded, {} failed in {} ms",
+                   progress.received, progress.succeeded, progress.failed, elapsedNanos / 1_000_000);
+        
+        return new StreamIngestResponse(progress.received, progress.succeeded, progress.failed,
+                                        progress.rejectedLines, elapsedNanos / 1_000_000, eventsPerSecond);
+    }
+    
+    private void flush(List<SynapseEvent> chunk, List<Long> chunkLines, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        
+        BatchIngestResponse response = eventIngestionService.ingestBatch(chunk);
+        for (IngestResult result : response.results()) {
+            if (result.status().isSuccess()) {
+                progress.succeeded++;
+            } else {
+                progress.reject(chunkLines.get(result.index()));
+            }
+        }
+        
+        chunk.clear();
+        chunkLines.clear();
+    }
+    
+    // Splits the body into lines without decoding it. The bytes of a line beyond maxLineBytes are
+    // skipped up to its newline, so a line without one cannot grow the buffer past the limit.
+    private static final class LineReader {
+        
+        private final InputStream in;
+        private final int maxLineBytes;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[8 * 1024];
+        private int length;
+        private boolean tooLong;
+        
+        private LineReader(InputStream in, int maxLineBytes) {
+            this.in = in;
+            this.maxLineBytes = maxLineBytes;
+        }
+        
+        // False once the stream is exhausted
+        private boolean next() throws IOException {
+            length = 0;
+            tooLong = false;
+            boolean read = false;
+            
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(in.read(buffer), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return read;
+                    }
+                }
+                read = true;
+                
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    return true;
+                }
+            }
+        }
+        
+        private void append(int from, int to) {
+            int count = to - from;
+            if (tooLong || length + count > maxLineBytes) {
+                tooLong = true;
+                return;
+            }
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.min(Math.max(line.length * 2, length + count), maxLineBytes));
+            }
+            System.arraycopy(buffer, from, line, length, count);
+            length += count;
+        }
+        
+        private boolean isBlank() {
+            if (tooLong) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (!Character.isWhitespace(line[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private boolean isTooLong() {
+            return tooLong;
+        }
+        
+        private byte[] line() {
+            return line;
+        }
+        
+        private int length() {
+            return length;
+        }
+    }
+    
+    private class Progress {
+        
+        private long received;
+        private long succeeded;
+        private long failed;
+        private final List<Long> rejectedLines = new ArrayList<>();
+        
+        private void reject(long lineNumber) {
+            failed++;
+            if (rejectedLines.size() < maxReportedLines) {
+                rejectedLines.add(lineNumber);
+            }
+        }
+    }
+}
\ No newline at end of file
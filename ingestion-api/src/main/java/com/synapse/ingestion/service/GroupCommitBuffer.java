@@ -0,0 +1,205 @@
+package com.synapse.ingestion.service;
+
+import com.synapse.core.SynapseEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class GroupCommitBuffer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitBuffer.class);
+    
+    @Value("${synapse.ingestion.group-commit.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${synapse.ingestion.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${synapse.ingestion.group-commit.max-batch-size:500}")
+    private int maxBatchSize;
+    
+    @Value("${synapse.ingestion.group-commit.max-delay-ms:5}")
+    private long maxDelayMs;
+    
+    @Value("${synapse.ingestion.group-commit.flush-threads:2}")
+    private int flushThreads;
+    
+    private final EventBatchWriter eventBatchWriter;
+    private final MeterRegistry meterRegistry;
+    
+    private BlockingQueue<PendingWrite> queue;
+    private List<Thread> flushers;
+    private DistributionSummary flushSize;
+    private Timer flushLatency;
+    private volatile boolean running;
+    
+    public GroupCommitBuffer(EventBatchWriter eventBatchWriter, MeterRegistry meterRegistry) {
+        this.eventBatchWriter = eventBatchWriter;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        
+        Gauge.builder("synapse.ingestion.groupcommit.queue.depth", queue, BlockingQueue::size)
+                .description("Events waiting for the next group commit")
+                .register(meterRegistry);
+        flushSize = DistributionSummary.builder("synapse.ingestion.groupcommit.flush.size")
+                .description("Events written per group commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        flushLatency = Timer.builder("synapse.ingestion.groupcommit.flush.latency")
+                .description("Time to write and commit one group")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        
+        running = true;
+        flushers = new ArrayList<>(flushThreads);
+        for (int i = 0; i < flushThreads; i++) {
+            Thread flusher = new Thread(this::flushLoop, "group-commit-flusher-" + i);
+            flusher.setDaemon(true);
+            flusher.start();
+            flushers.add(flusher);
+        }
+        
+        logger.info("Group commit enabled: queue capacity {}, max batch size {}, max delay {} ms, {} flush threads", 
+                   queueCapacity, maxBatchSize, maxDelayMs, flushThreads);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        
+        // Flushers keep draining until the queue is empty, so accepted events are not lost
+        running = false;
+        for (Thread flusher : flushers) {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        
+        // Anything still queued missed the flushers; fail it rather than leave its caller waiting
+        List<PendingWrite> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            logger.warn("Failing {} events queued after the group commit flushers stopped", leftover.size());
+            IllegalStateException stopped = new IllegalStateException("Group commit buffer stopped before the event was written");
+            for (PendingWrite pendingWrite : leftover) {
+                pendingWrite.outcome().completeExceptionally(stopped);
+            }
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public CompletableFuture<EventBatchWriter.WriteOutcome> submit(SynapseEvent event) {
+        PendingWrite pendingWrite = new PendingWrite(event, new CompletableFuture<>());
+        
+        if (!running) {
+            throw new IngestionOverloadedException("Group commit buffer is shutting down");
+        }
+        if (!queue.offer(pendingWrite)) {
+            throw new IngestionOverloadedException("Group commit queue is full");
+        }
+        // If stop() began meanwhile, the flushers and its final drain may already be done; an event
+        // still in the queue then would never complete, so take it back out and refuse it
+        if (!running && queue.remove(pendingWrite)) {
+            throw new IngestionOverloadedException("Group commit buffer is shutting down");
+        }
+        
+        return pendingWrite.outcome();
+    }
+    
+    private void flushLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                
+                flush(collectBatch(first));
+                
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private List<PendingWrite> collectBatch(PendingWrite first) throws InterruptedException {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            if (batch.size() >= maxBatchSize) {
+                break;
+            }
+            
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        
+        return batch;
+    }
+    
+    private void flush(List<PendingWrite> batch) {
+        List<SynapseEvent> events = new ArrayList<>(batch.size());
+        for (PendingWrite pendingWrite : batch) {
+            events.add(pendingWrite.event());
+        }
+        
+        long start = System.nanoTime();
+        try {
+            List<EventBatchWriter.WriteOutcome> outcomes = eventBatchWriter.write(events);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).outcome().complete(outcomes.get(i));
+            }
+        } catch (Exception e) {
+            logger.error("Group commit of {} events failed", batch.size(), e);
+            for (PendingWrite pendingWrite : batch) {
+                pendingWrite.outcome().completeExceptionally(e);
+            }
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushSize.record(batch.size());
+        }
+        
+        logger.debug("Group committed {} events", batch.size());
+    }
+    
+    private record PendingWrite(SynapseEvent event, CompletableFuture<EventBatchWriter.WriteOutcome> outcome) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.synapse.ingestion.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps concurrent ingestion work at roughly what the connection pool can serve. Requests beyond
+// that wait in a bounded queue for a limited time and are shed instead of piling up behind Hikari.
+@Component
+public class IngestionAdmissionControl {
+    
+    private final boolean enabled;
+    private final int maxQueueDepth;
+    private final long maxWaitMs;
+    
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter shedQueueFull;
+    private final Counter shedWaitTimeout;
+    
+    public IngestionAdmissionControl(@Value("${synapse.ingestion.admission.enabled:true}") boolean enabled,
+                                     @Value("${synapse.ingestion.admission.max-in-flight:10}") int maxInFlight,
+                                     @Value("${synapse.ingestion.admission.max-queue-depth:200}") int maxQueueDepth,
+                                     @Value("${synapse.ingestion.admission.max-wait-ms:1000}") long maxWaitMs,
+                                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(maxInFlight, true);
+        
+        Gauge.builder("synapse.ingestion.admission.in-flight", permits, p -> maxInFlight - p.availablePermits())
+                .description("Ingestion requests currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("synapse.ingestion.admission.queued", waiting, AtomicInteger::get)
+                .description("Ingestion requests waiting for admission")
+                .register(meterRegistry);
+        this.shedQueueFull = Counter.builder("synapse.ingestion.admission.shed")
+                .description("Ingestion requests rejected by admission control")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.shedWaitTimeout = Counter.builder("synapse.ingestion.admission.shed")
+                .description("Ingestion requests rejected by admission control")
+                .tag("reason", "wait_timeout")
+                .register(meterRegistry);
+    }
+    
+    // Every successful call must be paired with release()
+    public boolean tryAdmit() throws InterruptedException {
+        if (!enabled || permits.tryAcquire()) {
+            return true;
+        }
+        
+        if (waiting.incrementAndGet() > maxQueueDepth) {
+            waiting.decrementAndGet();
+            shedQueueFull.increment();
+            return false;
+        }
+        
+        try {
+            if (permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            shedWaitTimeout.increment();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+    
+    public void release() {
+        if (enabled) {
+            permits.release();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.synapse.ingestion.service;
+
+public class IngestionOverloadedException extends RuntimeException {
+    
+    public IngestionOverloadedException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
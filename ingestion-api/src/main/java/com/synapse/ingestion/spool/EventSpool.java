@@ -0,0 +1,527 @@
+package com.synapse.ingestion.spool;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.ingestion.repository.EventRepository;
+import com.synapse.ingestion.service.EventDedupCache;
+import com.synapse.ingestion.service.IngestionOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Local write-ahead log for single, batch and NDJSON ingestion. Events are acknowledged once they are fsynced
+// to a memory-mapped segment file and are drained to PostgreSQL in append order in the background,
+// so the API keeps accepting events while the database is slow or down.
+// Delivery to the database is at-least-once; replays after a crash are absorbed by ON CONFLICT DO NOTHING.
+// Segment files take at most max-size-bytes of disk; beyond that appends are refused as overload.
+@Component
+public class EventSpool {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventSpool.class);
+    
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    
+    @Value("${synapse.ingestion.spool.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${synapse.ingestion.spool.directory:data/spool}")
+    private String directory;
+    
+    @Value("${synapse.ingestion.spool.segment-size-bytes:67108864}")
+    private int segmentSizeBytes;
+    
+    @Value("${synapse.ingestion.spool.max-size-bytes:1073741824}")
+    private long maxSizeBytes;
+    
+    @Value("${synapse.ingestion.spool.drain-batch-size:500}")
+    private int drainBatchSize;
+    
+    @Value("${synapse.ingestion.spool.drain-idle-ms:50}")
+    private long drainIdleMs;
+    
+    @Value("${synapse.ingestion.spool.max-retry-backoff-ms:30000}")
+    private long maxRetryBackoffMs;
+    
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final EventDedupCache eventDedupCache;
+    
+    // Guards the active segment and its write offset
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+    private final ConcurrentSkipListMap<Long, SpoolSegment> segments = new ConcurrentSkipListMap<>();
+    private final Queue<PendingAck> pendingAcks = new ConcurrentLinkedQueue<>();
+    
+    private Path spoolDirectory;
+    private volatile SpoolSegment activeSegment;
+    private volatile Position durable;
+    private volatile Position drained;
+    private volatile long drainLagMs;
+    private volatile boolean running;
+    private Thread flusher;
+    private Thread drainer;
+    private Counter drainedEvents;
+    private Counter failedEvents;
+    
+    public EventSpool(EventRepository eventRepository, TransactionTemplate transactionTemplate,
+                      ObjectMapper objectMapper, MeterRegistry meterRegistry, EventDedupCache eventDedupCache) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.eventDedupCache = eventDedupCache;
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        
+        spoolDirectory = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(spoolDirectory);
+        recover();
+        
+        Gauge.builder("synapse.ingestion.spool.size", this, EventSpool::pendingBytes)
+                .description("Spooled bytes not yet drained to the database")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("synapse.ingestion.spool.segments", segments, Map::size)
+                .description("Segment files on disk")
+                .register(meterRegistry);
+        Gauge.builder("synapse.ingestion.spool.drain.lag", this, spool -> spool.drainLagMs)
+                .description("Age of the oldest spooled event not yet drained to the database")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        drainedEvents = Counter.builder("synapse.ingestion.spool.drained")
+                .description("Spooled events written to the database")
+                .register(meterRegistry);
+        failedEvents = Counter.builder("synapse.ingestion.spool.drain.failed")
+                .description("Spooled events the database rejected permanently")
+                .register(meterRegistry);
+        
+        running = true;
+        flusher = new Thread(this::flushLoop, "spool-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        drainer = new Thread(this::drainLoop, "spool-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+        
+        logger.info("Event spool enabled in {}: {} segments, drain position {}",
+                   spoolDirectory, segments.size(), drained);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        
+        // Whatever is still undrained stays in the segments and is picked up on the next start
+        running = false;
+        appendLock.lock();
+        try {
+            appended.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        drainer.interrupt();
+        drainer.join(TimeUnit.SECONDS.toMillis(30));
+        
+        for (SpoolSegment segment : segments.values()) {
+            segment.force();
+            segment.close();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // Completes once the event is durable in the spool
+    public CompletableFuture<Void> append(SynapseEvent event) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize event " + event.eventId(), e);
+        }
+        if (payload.length + SpoolSegment.HEADER_SIZE > segmentSizeBytes) {
+            throw new IllegalArgumentException("Event " + event.eventId() + " is larger than a spool segment");
+        }
+        
+        appendLock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Event spool is not running");
+            }
+            
+            SpoolSegment segment = activeSegment;
+            int end = segment.append(payload, System.currentTimeMillis());
+            if (end < 0) {
+                // Segments are preallocated, so each one on disk takes its full size
+                if ((long) (segments.size() + 1) * segmentSizeBytes > maxSizeBytes) {
+                    throw new IngestionOverloadedException("Event spool is full");
+                }
+                segment = rollover();
+                end = segment.append(payload, System.currentTimeMillis());
+            }
+            
+            PendingAck ack = new PendingAck(new Position(segment.id(), end), new CompletableFuture<>());
+            pendingAcks.add(ack);
+            appended.signal();
+            return ack.future();
+            
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append event " + event.eventId() + " to the spool", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    // Caller holds appendLock. The full segment is forced before it is replaced, so everything
+    // before the new segment is durable.
+    private SpoolSegment rollover() throws IOException {
+        SpoolSegment previous = activeSegment;
+        previous.force();
+        
+        SpoolSegment next = SpoolSegment.open(spoolDirectory, previous.id() + 1, segmentSizeBytes);
+        segments.put(next.id(), next);
+        activeSegment = next;
+        durable = new Position(next.id(), 0);
+        completeAcks();
+        
+        logger.debug("Spool rolled over to segment {}", next.id());
+        return next;
+    }
+    
+    // One fsync covers every append made since the previous one, so concurrent requests share it
+    private void flushLoop() {
+        while (true) {
+            SpoolSegment segment;
+            int target;
+            
+            appendLock.lock();
+            try {
+                while (running && !hasUnflushedAppends()) {
+                    appended.await(100, TimeUnit.MILLISECONDS);
+                }
+                if (!running && !hasUnflushedAppends()) {
+                    return;
+                }
+                segment = activeSegment;
+                target = segment.writeOffset();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                appendLock.unlock();
+            }
+            
+            try {
+                segment.force();
+            } catch (Exception e) {
+                logger.error("Failed to sync spool segment {}", segment.id(), e);
+                failAcks(e);
+                continue;
+            }
+            
+            appendLock.lock();
+            try {
+                // A rollover in the meantime already made this segment durable
+                if (durable.segmentId() == segment.id() && durable.offset() < target) {
+                    durable = new Position(segment.id(), target);
+                }
+            } finally {
+                appendLock.unlock();
+            }
+            completeAcks();
+        }
+    }
+    
+    private boolean hasUnflushedAppends() {
+        Position current = durable;
+        return current.segmentId() != activeSegment.id() || current.offset() < activeSegment.writeOffset();
+    }
+    
+    private void completeAcks() {
+        Position current = durable;
+        PendingAck ack;
+        while ((ack = pendingAcks.peek()) != null && !ack.position().isAfter(current)) {
+            pendingAcks.poll();
+            ack.future().complete(null);
+        }
+    }
+    
+    private void failAcks(Exception e) {
+        PendingAck ack;
+        while ((ack = pendingAcks.poll()) != null) {
+            ack.future().completeExceptionally(e);
+        }
+    }
+    
+    private void drainLoop() {
+        long backoffMs = drainIdleMs;
+        
+        while (running) {
+            try {
+                List<SpoolSegment.SpoolRecord> records = new ArrayList<>(drainBatchSize);
+                Position next = readBatch(records);
+                
+                if (records.isEmpty()) {
+                    drainLagMs = 0;
+                    if (!next.equals(drained)) {
+                        commitDrained(next);
+                    }
+                    Thread.sleep(drainIdleMs);
+                    continue;
+                }
+                
+                drainLagMs = System.currentTimeMillis() - records.get(0).appendedAtMillis();
+                try {
+                    write(records);
+                } catch (Exception e) {
+                    logger.warn("Database unavailable, {} spooled events waiting: {}", records.size(), e.getMessage());
+                    Thread.sleep(backoffMs);
+                    backoffMs = Math.min(backoffMs * 2, maxRetryBackoffMs);
+                    continue;
+                }
+                
+                backoffMs = drainIdleMs;
+                commitDrained(next);
+                
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Spool drain failed", e);
+            }
+        }
+    }
+    
+    // Reads up to drainBatchSize durable records after the drain position and returns the position past them
+    private Position readBatch(List<SpoolSegment.SpoolRecord> records) {
+        Position position = drained;
+        Position limit = durable;
+        
+        while (records.size() < drainBatchSize) {
+            SpoolSegment segment = segments.get(position.segmentId());
+            boolean sealed = position.segmentId() < limit.segmentId();
+            
+            SpoolSegment.SpoolRecord record = null;
+            if (segment != null && (sealed || position.offset() < limit.offset())) {
+                record = segment.read(position.offset());
+            }
+            
+            if (record != null) {
+                records.add(record);
+                position = new Position(position.segmentId(), record.nextOffset());
+            } else if (sealed) {
+                position = new Position(position.segmentId() + 1, 0);
+            } else {
+                break;
+            }
+        }
+        return position;
+    }
+    
+    // Throws if the database is unreachable so the whole batch is retried later.
+    // Events the database rejects on their own merits are logged and skipped instead of blocking the spool.
+    // Dedup keys are only remembered once an event is in the database, so a dropped event can be re-sent.
+    private void write(List<SpoolSegment.SpoolRecord> records) {
+        List<SynapseEvent> events = new ArrayList<>(records.size());
+        for (SpoolSegment.SpoolRecord record : records) {
+            try {
+                events.add(objectMapper.readValue(record.payload(), SynapseEvent.class));
+            } catch (IOException e) {
+                logger.error("Skipping unreadable spooled event", e);
+                failedEvents.increment();
+            }
+        }
+        
+        if (events.isEmpty()) {
+            return;
+        }
+        
+        try {
+            transactionTemplate.execute(tx -> eventRepository.saveAll(events));
+            drainedEvents.increment(events.size());
+            events.forEach(event -> eventDedupCache.remember(eventDedupCache.keyOf(event)));
+            return;
+        } catch (RuntimeException e) {
+            if (isDatabaseUnavailable(e)) {
+                throw e;
+            }
+            logger.warn("Spooled batch of {} events failed, retrying individually", events.size(), e);
+        }
+        
+        for (SynapseEvent event : events) {
+            try {
+                transactionTemplate.execute(tx -> eventRepository.save(event));
+                drainedEvents.increment();
+                eventDedupCache.remember(eventDedupCache.keyOf(event));
+            } catch (RuntimeException e) {
+                if (isDatabaseUnavailable(e)) {
+                    throw e;
+                }
+                logger.error("Dropping spooled event: {} with ID: {}", event.eventType(), event.eventId(), e);
+                failedEvents.increment();
+            }
+        }
+    }
+    
+    private static boolean isDatabaseUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CannotCreateTransactionException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void commitDrained(Position position) throws IOException {
+        writeCheckpoint(position);
+        drained = position;
+        
+        // Segments behind the checkpoint are fully drained
+        for (SpoolSegment segment : new ArrayList<>(segments.values())) {
+            if (segment.id() >= position.segmentId() || segment == activeSegment) {
+                break;
+            }
+            segments.remove(segment.id());
+            segment.delete();
+            logger.debug("Deleted drained spool segment {}", segment.id());
+        }
+    }
+    
+    // Not fsynced: a checkpoint lost in a crash only means some events are drained twice
+    private void writeCheckpoint(Position position) throws IOException {
+        Path checkpoint = spoolDirectory.resolve(CHECKPOINT_FILE);
+        Path temporary = spoolDirectory.resolve(CHECKPOINT_FILE + ".tmp");
+        
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        buffer.putLong(position.segmentId()).putInt(position.offset()).flip();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private Position readCheckpoint() throws IOException {
+        Path checkpoint = spoolDirectory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return null;
+        }
+        
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+        if (buffer.remaining() < Long.BYTES + Integer.BYTES) {
+            logger.warn("Ignoring truncated spool checkpoint");
+            return null;
+        }
+        return new Position(buffer.getLong(), buffer.getInt());
+    }
+    
+    // Reopens the segments left by a previous run. Only the newest one can have a torn tail.
+    private void recover() throws IOException {
+        List<Long> ids;
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            ids = files.map(SpoolSegment::parseId)
+                    .filter(id -> id != null)
+                    .sorted()
+                    .toList();
+        }
+        
+        Position checkpoint = readCheckpoint();
+        for (long id : ids) {
+            SpoolSegment segment = SpoolSegment.open(spoolDirectory, id, segmentSizeBytes);
+            if (checkpoint != null && id < checkpoint.segmentId()) {
+                segment.delete();
+                continue;
+            }
+            segments.put(id, segment);
+        }
+        
+        if (segments.isEmpty()) {
+            long id = checkpoint != null ? checkpoint.segmentId() : 0;
+            segments.put(id, SpoolSegment.open(spoolDirectory, id, segmentSizeBytes));
+        }
+        
+        SpoolSegment last = segments.lastEntry().getValue();
+        int end = last.recover();
+        activeSegment = last;
+        durable = new Position(last.id(), end);
+        
+        // A checkpoint pointing at a missing segment or past the recovered end is not trusted
+        boolean usable = checkpoint != null && segments.containsKey(checkpoint.segmentId())
+                         && !checkpoint.isAfter(durable);
+        drained = usable ? checkpoint : new Position(segments.firstKey(), 0);
+        
+        if (!drained.equals(durable)) {
+            logger.info("Recovered spool with undrained events from {} up to {}", drained, durable);
+        }
+    }
+    
+    private double pendingBytes() {
+        Position from = drained;
+        Position to = durable;
+        if (from == null || to == null) {
+            return 0;
+        }
+        return (double) (to.segmentId() - from.segmentId()) * segmentSizeBytes + to.offset() - from.offset();
+    }
+    
+    private record Position(long segmentId, int offset) {
+        
+        boolean isAfter(Position other) {
+            return segmentId != other.segmentId() ? segmentId > other.segmentId() : offset > other.offset();
+        }
+    }
+    
+    private record PendingAck(Position position, CompletableFuture<Void> future) {
+    }
+}
\ No newline at end of file
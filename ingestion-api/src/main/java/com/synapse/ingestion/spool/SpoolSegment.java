@@ -0,0 +1,147 @@
+package com.synapse.ingestion.spool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// One preallocated, memory-mapped segment file of the spool.
+// Record layout: int length | int crc32c | long appendedAtMillis | payload. A zero length marks the end.
+class SpoolSegment {
+    
+    static final int HEADER_SIZE = 16;
+    
+    private static final String FILE_PREFIX = "segment-";
+    private static final String FILE_SUFFIX = ".log";
+    
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    
+    private int writeOffset;
+    
+    private SpoolSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+    
+    static SpoolSegment open(Path directory, long id, int capacity) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", FILE_PREFIX, id, FILE_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                               StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        return new SpoolSegment(id, path, channel, buffer, capacity);
+    }
+    
+    static Long parseId(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    long id() {
+        return id;
+    }
+    
+    int capacity() {
+        return capacity;
+    }
+    
+    int writeOffset() {
+        return writeOffset;
+    }
+    
+    // Finds the end of the intact records and clears anything after it, such as a record
+    // that was only partly on disk when the process died
+    int recover() {
+        int offset = 0;
+        SpoolRecord record;
+        while ((record = read(offset)) != null) {
+            offset = record.nextOffset();
+        }
+        
+        byte[] zeros = new byte[8192];
+        for (int position = offset; position < capacity; position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, capacity - position));
+        }
+        
+        writeOffset = offset;
+        return offset;
+    }
+    
+    // Returns the offset just past the new record, or -1 if the segment is full
+    int append(byte[] payload, long appendedAtMillis) {
+        int end = writeOffset + HEADER_SIZE + payload.length;
+        if (end > capacity) {
+            return -1;
+        }
+        
+        // Length goes last so a reader never sees a record whose body is still being copied
+        buffer.put(writeOffset + HEADER_SIZE, payload);
+        buffer.putLong(writeOffset + 8, appendedAtMillis);
+        buffer.putInt(writeOffset + 4, checksum(appendedAtMillis, payload));
+        buffer.putInt(writeOffset, payload.length);
+        
+        writeOffset = end;
+        return end;
+    }
+    
+    SpoolRecord read(int offset) {
+        if (offset + HEADER_SIZE > capacity) {
+            return null;
+        }
+        
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_SIZE + length > capacity) {
+            return null;
+        }
+        
+        int crc = buffer.getInt(offset + 4);
+        long appendedAtMillis = buffer.getLong(offset + 8);
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER_SIZE, payload);
+        
+        if (checksum(appendedAtMillis, payload) != crc) {
+            return null;
+        }
+        return new SpoolRecord(payload, appendedAtMillis, offset + HEADER_SIZE + length);
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    void close() throws IOException {
+        channel.close();
+    }
+    
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+    
+    private static int checksum(long appendedAtMillis, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, appendedAtMillis));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+    
+    record SpoolRecord(byte[] payload, long appendedAtMillis, int nextOffset) {
+    }
+}
\ No newline at end of file
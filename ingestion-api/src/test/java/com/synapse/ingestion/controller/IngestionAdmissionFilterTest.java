@@ -0,0 +1,101 @@
+package com.synapse.ingestion.controller;
+
+import com.synapse.ingestion.service.IngestionAdmissionControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestionAdmissionFilterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IngestionAdmissionFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        filter = new IngestionAdmissionFilter(new IngestionAdmissionControl(true, 1, 0, 50, meterRegistry));
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 3);
+    }
+    
+    @Test
+    void shedRequestGets429WithRetryAfter() throws Exception {
+        CountDownLatch inChain = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            inChain.countDown();
+            try {
+                finish.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        
+        // The first request holds the only permit while the second one arrives
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(post("/api/v1/ingest/batch"), first, blocking);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(inChain.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        MockFilterChain notCalled = new MockFilterChain();
+        filter.doFilter(post("/api/v1/ingest"), shed, notCalled);
+        
+        assertThat(shed.getStatus()).isEqualTo(429);
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(notCalled.getRequest()).isNull();
+        
+        finish.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(first.getStatus()).isEqualTo(200);
+    }
+    
+    @Test
+    void permitIsReleasedAfterEachRequest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(post("/api/v1/ingest"), response, chain);
+            
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(chain.getRequest()).isNotNull();
+        }
+        assertThat(meterRegistry.get("synapse.ingestion.admission.in-flight").gauge().value()).isZero();
+    }
+    
+    @Test
+    void streamsAndReadsAreNotAdmissionControlled() throws Exception {
+        IngestionAdmissionControl exhausted = new IngestionAdmissionControl(true, 0, 0, 0, new SimpleMeterRegistry());
+        IngestionAdmissionFilter closed = new IngestionAdmissionFilter(exhausted);
+        
+        MockHttpServletRequest stream = post("/api/v1/ingest/stream");
+        MockHttpServletRequest receipt = new MockHttpServletRequest("GET", "/api/v1/ingest/receipts/abc");
+        for (MockHttpServletRequest request : new MockHttpServletRequest[] {stream, receipt}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            closed.doFilter(request, response, chain);
+            
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(chain.getRequest()).isNotNull();
+        }
+    }
+    
+    private static MockHttpServletRequest post(String uri) {
+        return new MockHttpServletRequest("POST", uri);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.synapse.ingestion.controller;
+
+import com.synapse.core.encoding.ContentEncoding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RequestDecompressionFilterTest {
+    
+    private static final int MAX_BODY_BYTES = 1024;
+    
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUp() {
+        RequestDecompressionFilter filter = new RequestDecompressionFilter();
+        ReflectionTestUtils.setField(filter, "maxBodyBytes", (long) MAX_BODY_BYTES);
+        mockMvc = MockMvcBuilders.standaloneSetup(new EchoController())
+                .addFilters(filter)
+                .build();
+    }
+    
+    @Test
+    void decodesGzipAndZstdBodies() throws Exception {
+        byte[] json = events(3);
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            mockMvc.perform(post("/api/v1/ingest/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.CONTENT_ENCODING, encoding.token())
+                            .content(compress(json, encoding)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("3"));
+        }
+    }
+    
+    @Test
+    void compressedBodyThatInflatesPastTheLimitIs413() throws Exception {
+        byte[] json = events(200);
+        byte[] compressed = compress(json, ContentEncoding.GZIP);
+        // Small on the wire, so only the decompressed byte count can catch it
+        assertThat(compressed.length).isLessThan(MAX_BODY_BYTES);
+        
+        mockMvc.perform(post("/api/v1/ingest/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(compressed))
+                .andExpect(status().isPayloadTooLarge());
+    }
+    
+    @Test
+    void uncompressedBodyOverTheLimitIs413BeforeItIsRead() throws Exception {
+        mockMvc.perform(post("/api/v1/ingest/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(events(200)))
+                .andExpect(status().isPayloadTooLarge());
+    }
+    
+    @Test
+    void streamingPathsAreNotLimited() throws Exception {
+        mockMvc.perform(post("/api/v1/ingest/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(compress(events(200), ContentEncoding.GZIP)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("200"));
+    }
+    
+    @Test
+    void unknownEncodingIs415() throws Exception {
+        mockMvc.perform(post("/api/v1/ingest/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "br")
+                        .content(events(1)))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(header().string(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd"));
+    }
+    
+    private static byte[] events(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"sourceEntityId\": \"PR_").append(i).append("\"}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static byte[] compress(byte[] body, ContentEncoding encoding) throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = encoding.encode(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+    
+    @RestController
+    static class EchoController {
+        
+        @PostMapping({"/api/v1/ingest/batch", "/api/v1/ingest/stream"})
+        int count(@RequestBody List<Map<String, Object>> events) {
+            return events.size();
+        }
+    }
+}
\ No newline at end of file
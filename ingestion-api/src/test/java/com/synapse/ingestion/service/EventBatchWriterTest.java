@@ -0,0 +1,92 @@
+package com.synapse.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.IngestStatus;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import com.synapse.ingestion.repository.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventBatchWriterTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EventRepository eventRepository;
+    private EventBatchWriter writer;
+    
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        writer = new EventBatchWriter(eventRepository, transactionTemplate, new IngestionMetrics(meterRegistry));
+    }
+    
+    @Test
+    void batchReportsRowsNotInsertedAsDuplicates() {
+        SynapseEvent created = event("PR_1");
+        SynapseEvent duplicate = event("PR_2");
+        // The same event ID twice in one batch is inserted at most once
+        SynapseEvent repeated = new SynapseEvent(created.eventId(), null, created.timestamp(), "GITHUB", "PR_1",
+                                                 "GitHubPullRequestUpdatedEvent", 1, created.payload());
+        when(eventRepository.saveAll(anyList())).thenReturn(new HashSet<>(Set.of(created.eventId())));
+        
+        List<EventBatchWriter.WriteOutcome> outcomes = writer.write(List.of(created, duplicate, repeated));
+        
+        assertThat(outcomes).extracting(EventBatchWriter.WriteOutcome::status)
+                .containsExactly(IngestStatus.CREATED, IngestStatus.DUPLICATE, IngestStatus.DUPLICATE);
+        verify(eventRepository, never()).save(any());
+    }
+    
+    @Test
+    void failedBatchIsRetriedRowByRowToIsolateTheBadRow() {
+        SynapseEvent good = event("PR_1");
+        SynapseEvent bad = event("PR_2");
+        SynapseEvent duplicate = event("PR_3");
+        when(eventRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("value too long"));
+        when(eventRepository.save(good)).thenReturn(true);
+        when(eventRepository.save(bad)).thenThrow(new DataIntegrityViolationException("value too long"));
+        when(eventRepository.save(duplicate)).thenReturn(false);
+        
+        List<EventBatchWriter.WriteOutcome> outcomes = writer.write(List.of(good, bad, duplicate));
+        
+        assertThat(outcomes).extracting(EventBatchWriter.WriteOutcome::status)
+                .containsExactly(IngestStatus.CREATED, IngestStatus.FAILED, IngestStatus.DUPLICATE);
+        assertThat(outcomes.get(1).error()).contains("value too long");
+        assertThat(meterRegistry.get(IngestionMetrics.DB_ERRORS).tag("operation", "batch_insert").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(IngestionMetrics.DB_ERRORS).tag("operation", "insert").counter().count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void emptyBatchTouchesNothing() {
+        assertThat(writer.write(List.of())).isEmpty();
+        verify(eventRepository, never()).saveAll(anyList());
+    }
+    
+    private SynapseEvent event(String sourceEntityId) {
+        return new SynapseEvent(UUID.randomUUID(), null, Instant.now(), "GITHUB", sourceEntityId,
+                                "GitHubPullRequestUpdatedEvent", 1, objectMapper.createObjectNode());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.synapse.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventDedupCacheTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EventDedupCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new EventDedupCache(objectMapper, 1000);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+    }
+    
+    @Test
+    void keyFollowsSourceEntityAndContentNotEventId() throws Exception {
+        String key = cache.keyOf(event("PR_1", "{\"title\": \"a\"}"));
+        
+        assertThat(cache.keyOf(event("PR_1", "{\"title\": \"a\"}"))).isEqualTo(key);
+        assertThat(cache.keyOf(event("PR_1", "{\"title\": \"b\"}"))).isNotEqualTo(key);
+        assertThat(cache.keyOf(event("PR_2", "{\"title\": \"a\"}"))).isNotEqualTo(key);
+    }
+    
+    @Test
+    void onlyRememberedKeysAreDuplicates() throws Exception {
+        String key = cache.keyOf(event("PR_1", "{}"));
+        assertThat(cache.isKnownDuplicate(key)).isFalse();
+        
+        cache.remember(key);
+        assertThat(cache.isKnownDuplicate(key)).isTrue();
+    }
+    
+    @Test
+    void keysAreTheSameAcrossThreads() throws Exception {
+        SynapseEvent event = event("PR_1", "{\"title\": \"a\", \"labels\": [1, 2, 3]}");
+        String expected = cache.keyOf(event);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            var keys = IntStream.range(0, 1000)
+                    .mapToObj(i -> executor.submit(() -> cache.keyOf(event)))
+                    .toList();
+            for (Future<String> key : keys) {
+                assertThat(key.get()).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void disabledCacheHasNoKeys() throws Exception {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        
+        String key = cache.keyOf(event("PR_1", "{}"));
+        cache.remember(key);
+        assertThat(key).isNull();
+        assertThat(cache.isKnownDuplicate(key)).isFalse();
+    }
+    
+    private SynapseEvent event(String sourceEntityId, String payload) throws Exception {
+        return new SynapseEvent(UUID.randomUUID(), null, Instant.now(), "GITHUB", sourceEntityId,
+                                "GitHubPullRequestUpdatedEvent", 1, objectMapper.readTree(payload));
+    }
+}
\ No newline at end of file
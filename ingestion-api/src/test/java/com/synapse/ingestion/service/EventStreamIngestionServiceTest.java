@@ -0,0 +1,85 @@
+package com.synapse.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.BatchIngestResponse;
+import com.synapse.core.dto.IngestResult;
+import com.synapse.core.dto.IngestStatus;
+import com.synapse.core.dto.StreamIngestResponse;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventStreamIngestionServiceTest {
+    
+    private static final String EVENT = """
+            {"sourceSystem": "SLACK", "sourceEntityId": "m-%d", "eventType": "SlackMessageCreatedEvent", "payload": {"text": "%s"}}""";
+    
+    private final List<SynapseEvent> ingested = new ArrayList<>();
+    private EventStreamIngestionService service;
+    
+    @BeforeEach
+    void setUp() {
+        EventIngestionService ingestionService = mock(EventIngestionService.class);
+        when(ingestionService.ingestBatch(anyList())).thenAnswer(invocation -> {
+            List<SynapseEvent> chunk = invocation.getArgument(0);
+            List<IngestResult> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                ingested.add(chunk.get(i));
+                results.add(new IngestResult(i, chunk.get(i).eventId(), IngestStatus.CREATED, null));
+            }
+            return BatchIngestResponse.of(results);
+        });
+        
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        service = new EventStreamIngestionService(ingestionService, objectMapper,
+                                                  new IngestionMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "maxReportedLines", 1000);
+        ReflectionTestUtils.setField(service, "maxLineBytes", 256);
+    }
+    
+    @Test
+    void rejectsMalformedAndOverlongLinesAndKeepsGoing() throws Exception {
+        String body = EVENT.formatted(1, "first") + "\n"
+                + "{not json\n"
+                + "\n"
+                + EVENT.formatted(3, "x".repeat(1000)) + "\n"
+                + EVENT.formatted(4, "fourth") + "\r\n"
+                // The last line has no newline
+                + EVENT.formatted(5, "fifth");
+        
+        StreamIngestResponse response = service.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        
+        assertThat(response.received()).isEqualTo(5);
+        assertThat(response.succeeded()).isEqualTo(3);
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.rejectedLines()).containsExactly(2L, 4L);
+        assertThat(ingested).extracting(SynapseEvent::sourceEntityId).containsExactly("m-1", "m-4", "m-5");
+    }
+    
+    @Test
+    void overlongLineIsNotBuffered() throws Exception {
+        // Far past the limit and without a newline: skipped rather than buffered, and rejected
+        String body = "[" + "1,".repeat(1_000_000) + "1]";
+        
+        StreamIngestResponse response = service.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        
+        assertThat(response.received()).isEqualTo(1);
+        assertThat(response.rejectedLines()).containsExactly(1L);
+        assertThat(ingested).isEmpty();
+    }
+}
\ No newline at end of file
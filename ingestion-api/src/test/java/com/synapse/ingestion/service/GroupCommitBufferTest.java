@@ -0,0 +1,137 @@
+package com.synapse.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.dto.IngestStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GroupCommitBufferTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Integer> flushSizes = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch writesAllowed = new CountDownLatch(1);
+    private GroupCommitBuffer buffer;
+    
+    @BeforeEach
+    void setUp() {
+        EventBatchWriter eventBatchWriter = mock(EventBatchWriter.class);
+        when(eventBatchWriter.write(anyList())).thenAnswer(invocation -> {
+            writesAllowed.await(10, TimeUnit.SECONDS);
+            List<SynapseEvent> events = invocation.getArgument(0);
+            flushSizes.add(events.size());
+            return events.stream().map(event -> EventBatchWriter.WriteOutcome.CREATED).toList();
+        });
+        
+        buffer = new GroupCommitBuffer(eventBatchWriter, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(buffer, "maxBatchSize", 50);
+        ReflectionTestUtils.setField(buffer, "maxDelayMs", 20L);
+        ReflectionTestUtils.setField(buffer, "flushThreads", 1);
+        buffer.start();
+    }
+    
+    @Test
+    void queuedEventsAreWrittenTogether() throws Exception {
+        List<CompletableFuture<EventBatchWriter.WriteOutcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            outcomes.add(buffer.submit(event(i)));
+        }
+        writesAllowed.countDown();
+        
+        for (CompletableFuture<EventBatchWriter.WriteOutcome> outcome : outcomes) {
+            assertThat(outcome.get(10, TimeUnit.SECONDS).status()).isEqualTo(IngestStatus.CREATED);
+        }
+        assertThat(flushSizes).allMatch(size -> size <= 50);
+        assertThat(flushSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(120);
+        assertThat(flushSizes.size()).isLessThan(120);
+        buffer.stop();
+    }
+    
+    @Test
+    void stopWritesWhatWasAcceptedAndRefusesNewEvents() throws Exception {
+        List<CompletableFuture<EventBatchWriter.WriteOutcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            outcomes.add(buffer.submit(event(i)));
+        }
+        
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(() -> {
+            try {
+                buffer.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        writesAllowed.countDown();
+        stopped.get(10, TimeUnit.SECONDS);
+        
+        assertThat(outcomes).allMatch(outcome -> outcome.isDone() && !outcome.isCompletedExceptionally());
+        assertThatThrownBy(() -> buffer.submit(event(11))).isInstanceOf(IngestionOverloadedException.class);
+    }
+    
+    @Test
+    void noAcceptedEventIsLeftWaitingWhenStopRacesWithSubmit() throws Exception {
+        writesAllowed.countDown();
+        List<CompletableFuture<EventBatchWriter.WriteOutcome>> accepted = Collections.synchronizedList(new ArrayList<>());
+        
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> loops = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                loops.add(submitters.submit(() -> {
+                    for (int i = 0; ; i++) {
+                        try {
+                            accepted.add(buffer.submit(event(i)));
+                        } catch (IngestionOverloadedException e) {
+                            // Refused once the buffer is shutting down or full
+                            if (e.getMessage().contains("shutting down")) {
+                                return;
+                            }
+                        }
+                    }
+                }));
+            }
+            
+            Thread.sleep(50);
+            buffer.stop();
+            for (Future<?> loop : loops) {
+                loop.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            submitters.shutdownNow();
+        }
+        
+        // Every accepted event is either written or failed by stop(); none waits forever
+        assertThat(accepted).isNotEmpty();
+        CompletableFuture.allOf(accepted.toArray(CompletableFuture[]::new))
+                .handle((result, error) -> null)
+                .get(10, TimeUnit.SECONDS);
+        assertThat(accepted).allMatch(CompletableFuture::isDone);
+    }
+    
+    private SynapseEvent event(int index) {
+        return new SynapseEvent(UUID.randomUUID(), null, Instant.now(), "GITHUB", "PR_" + index,
+                                "GitHubPullRequestUpdatedEvent", 1, objectMapper.createObjectNode());
+    }
+}
\ No newline at end of file
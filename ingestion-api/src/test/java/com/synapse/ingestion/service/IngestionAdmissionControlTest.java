@@ -0,0 +1,68 @@
+package com.synapse.ingestion.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestionAdmissionControlTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void waitsForAReleasedPermit() throws Exception {
+        IngestionAdmissionControl admissionControl = new IngestionAdmissionControl(true, 1, 10, 5000, meterRegistry);
+        assertThat(admissionControl.tryAdmit()).isTrue();
+        
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return admissionControl.tryAdmit();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+        
+        admissionControl.release();
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(shed("queue_full") + shed("wait_timeout")).isZero();
+    }
+    
+    @Test
+    void shedsWhenNoPermitFreesUpInTime() throws Exception {
+        IngestionAdmissionControl admissionControl = new IngestionAdmissionControl(true, 1, 10, 50, meterRegistry);
+        assertThat(admissionControl.tryAdmit()).isTrue();
+        
+        assertThat(admissionControl.tryAdmit()).isFalse();
+        assertThat(shed("wait_timeout")).isEqualTo(1);
+        assertThat(meterRegistry.get("synapse.ingestion.admission.queued").gauge().value()).isZero();
+    }
+    
+    @Test
+    void shedsImmediatelyWhenTheQueueIsFull() throws Exception {
+        IngestionAdmissionControl admissionControl = new IngestionAdmissionControl(true, 1, 0, 5000, meterRegistry);
+        assertThat(admissionControl.tryAdmit()).isTrue();
+        
+        long start = System.nanoTime();
+        assertThat(admissionControl.tryAdmit()).isFalse();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        assertThat(shed("queue_full")).isEqualTo(1);
+    }
+    
+    @Test
+    void disabledControlAdmitsEverything() throws Exception {
+        IngestionAdmissionControl admissionControl = new IngestionAdmissionControl(false, 1, 0, 0, meterRegistry);
+        
+        for (int i = 0; i < 5; i++) {
+            assertThat(admissionControl.tryAdmit()).isTrue();
+        }
+    }
+    
+    private double shed(String reason) {
+        return meterRegistry.get("synapse.ingestion.admission.shed").tag("reason", reason).counter().count();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,198 @@
+package com.synapse.ingestion.spool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.synapse.core.SynapseEvent;
+import com.synapse.ingestion.repository.EventRepository;
+import com.synapse.ingestion.service.EventDedupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventSpoolTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<UUID> saved = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+    private final List<EventSpool> running = new ArrayList<>();
+    
+    @TempDir
+    Path directory;
+    
+    private EventRepository eventRepository;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        when(eventRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            List<SynapseEvent> events = invocation.getArgument(0);
+            events.forEach(event -> saved.add(event.eventId()));
+            return new HashSet<UUID>();
+        });
+        
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        for (EventSpool spool : new ArrayList<>(running)) {
+            stop(spool);
+        }
+    }
+    
+    @Test
+    void acknowledgedEventsAreDrainedInOrderAcrossSegments() throws Exception {
+        EventSpool spool = start();
+        
+        List<SynapseEvent> events = IntStream.range(0, 20).mapToObj(this::event).toList();
+        List<CompletableFuture<Void>> acks = events.stream().map(spool::append).toList();
+        CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        
+        await(() -> saved.size() == events.size());
+        assertThat(saved).containsExactlyElementsOf(events.stream().map(SynapseEvent::eventId).toList());
+        
+        // Segments behind the checkpoint are deleted once drained
+        await(() -> pendingBytes() == 0 && segmentFiles().size() == 1);
+        assertThat(Files.exists(directory.resolve("checkpoint"))).isTrue();
+    }
+    
+    @Test
+    void undrainedEventsAreReplayedAfterRestartAndDrainedOnesAreNot() throws Exception {
+        EventSpool first = start();
+        SynapseEvent drainedEvent = event(1);
+        first.append(drainedEvent).get(10, TimeUnit.SECONDS);
+        await(() -> saved.size() == 1 && pendingBytes() == 0);
+        
+        databaseDown.set(true);
+        SynapseEvent pendingA = event(2);
+        SynapseEvent pendingB = event(3);
+        first.append(pendingA).get(10, TimeUnit.SECONDS);
+        first.append(pendingB).get(10, TimeUnit.SECONDS);
+        stop(first);
+        assertThat(saved).containsExactly(drainedEvent.eventId());
+        
+        databaseDown.set(false);
+        start();
+        
+        await(() -> saved.size() == 3);
+        assertThat(saved).containsExactly(drainedEvent.eventId(), pendingA.eventId(), pendingB.eventId());
+    }
+    
+    @Test
+    void tornTailIsDroppedOnRestartAndAppendsContinueAfterIt() throws Exception {
+        databaseDown.set(true);
+        EventSpool first = start();
+        SynapseEvent intact = event(1);
+        SynapseEvent torn = event(2);
+        first.append(intact).get(10, TimeUnit.SECONDS);
+        first.append(torn).get(10, TimeUnit.SECONDS);
+        stop(first);
+        
+        // Corrupt the last byte written, inside the second record's payload
+        Path segment = segmentFiles().get(0);
+        byte[] content = Files.readAllBytes(segment);
+        int last = content.length - 1;
+        while (content[last] == 0) {
+            last--;
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) (content[last] ^ 0x7f)}), last);
+        }
+        
+        databaseDown.set(false);
+        EventSpool second = start();
+        SynapseEvent next = event(3);
+        second.append(next).get(10, TimeUnit.SECONDS);
+        
+        await(() -> saved.size() == 2);
+        assertThat(saved).containsExactly(intact.eventId(), next.eventId());
+    }
+    
+    private EventSpool start() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        EventSpool spool = new EventSpool(eventRepository, transactionTemplate, objectMapper, meterRegistry,
+                                          new EventDedupCache(objectMapper, 1000));
+        ReflectionTestUtils.setField(spool, "enabled", true);
+        ReflectionTestUtils.setField(spool, "directory", directory.toString());
+        ReflectionTestUtils.setField(spool, "segmentSizeBytes", 2048);
+        ReflectionTestUtils.setField(spool, "maxSizeBytes", 1_048_576L);
+        ReflectionTestUtils.setField(spool, "drainBatchSize", 4);
+        ReflectionTestUtils.setField(spool, "drainIdleMs", 10L);
+        ReflectionTestUtils.setField(spool, "maxRetryBackoffMs", 50L);
+        spool.start();
+        running.add(spool);
+        return spool;
+    }
+    
+    private void stop(EventSpool spool) throws Exception {
+        running.remove(spool);
+        spool.stop();
+    }
+    
+    private double pendingBytes() {
+        return meterRegistry.get("synapse.ingestion.spool.size").gauge().value();
+    }
+    
+    private List<Path> segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SpoolSegment.parseId(file) != null).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private SynapseEvent event(int index) {
+        return new SynapseEvent(UUID.randomUUID(), null, Instant.now(), "GITHUB", "PR_" + index,
+                                "GitHubPullRequestUpdatedEvent", 1,
+                                objectMapper.createObjectNode().put("title", "Pull request " + index));
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
\ No newline at end of file
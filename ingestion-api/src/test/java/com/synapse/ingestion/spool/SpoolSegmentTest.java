@@ -0,0 +1,90 @@
+package com.synapse.ingestion.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpoolSegmentTest {
+    
+    private static final int CAPACITY = 4096;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void reopenedSegmentKeepsIntactRecords() throws Exception {
+        SpoolSegment segment = SpoolSegment.open(directory, 7, CAPACITY);
+        segment.recover();
+        int first = segment.append(bytes("first"), 1000L);
+        int second = segment.append(bytes("second"), 2000L);
+        segment.force();
+        segment.close();
+        
+        SpoolSegment reopened = SpoolSegment.open(directory, 7, CAPACITY);
+        assertThat(reopened.recover()).isEqualTo(second);
+        
+        SpoolSegment.SpoolRecord record = reopened.read(0);
+        assertThat(new String(record.payload(), StandardCharsets.UTF_8)).isEqualTo("first");
+        assertThat(record.appendedAtMillis()).isEqualTo(1000L);
+        assertThat(record.nextOffset()).isEqualTo(first);
+        assertThat(new String(reopened.read(first).payload(), StandardCharsets.UTF_8)).isEqualTo("second");
+        assertThat(reopened.read(second)).isNull();
+        reopened.close();
+    }
+    
+    @Test
+    void recoveryDropsRecordWithBadChecksumAndEverythingAfterIt() throws Exception {
+        SpoolSegment segment = SpoolSegment.open(directory, 0, CAPACITY);
+        segment.recover();
+        int first = segment.append(bytes("first"), 1000L);
+        int second = segment.append(bytes("second"), 2000L);
+        segment.append(bytes("third"), 3000L);
+        segment.force();
+        segment.close();
+        
+        // Flip one byte of the second payload, as if the process died while it was being written
+        try (FileChannel channel = FileChannel.open(directory.resolve(String.format("segment-%020d.log", 0)),
+                                                    StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), first + SpoolSegment.HEADER_SIZE);
+        }
+        
+        SpoolSegment reopened = SpoolSegment.open(directory, 0, CAPACITY);
+        assertThat(reopened.recover()).isEqualTo(first);
+        assertThat(reopened.read(first)).isNull();
+        assertThat(reopened.read(second)).isNull();
+        
+        // The next append overwrites the cleared tail
+        assertThat(reopened.append(bytes("fourth"), 4000L)).isGreaterThan(first);
+        assertThat(new String(reopened.read(first).payload(), StandardCharsets.UTF_8)).isEqualTo("fourth");
+        reopened.close();
+    }
+    
+    @Test
+    void appendRefusesRecordThatDoesNotFit() throws Exception {
+        SpoolSegment segment = SpoolSegment.open(directory, 0, 64);
+        segment.recover();
+        
+        assertThat(segment.append(new byte[40], 1000L)).isEqualTo(56);
+        assertThat(segment.append(new byte[1], 2000L)).isEqualTo(-1);
+        assertThat(segment.writeOffset()).isEqualTo(56);
+        segment.close();
+    }
+    
+    @Test
+    void parsesOnlySegmentFileNames() {
+        assertThat(SpoolSegment.parseId(Path.of("segment-00000000000000000042.log"))).isEqualTo(42L);
+        assertThat(SpoolSegment.parseId(Path.of("checkpoint"))).isNull();
+        assertThat(SpoolSegment.parseId(Path.of("segment-abc.log"))).isNull();
+    }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
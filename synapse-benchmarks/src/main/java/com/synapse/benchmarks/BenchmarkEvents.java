@@ -0,0 +1,72 @@
+package com.synapse.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.constants.EventType;
+import com.synapse.core.constants.SourceSystem;
+
+import java.time.Instant;
+
+// Representative events shared by the benchmarks, shaped like what the connectors send
+final class BenchmarkEvents {
+    
+    private BenchmarkEvents() {
+        // Utility class
+    }
+    
+    // Configured like the ObjectMapper beans in the services
+    static ObjectMapper objectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        return mapper;
+    }
+    
+    static SynapseEvent pullRequestEvent(ObjectMapper mapper, int bodyLength) {
+        ObjectNode payload = mapper.createObjectNode();
+        payload.put("repository", "sevkic/synapse-project");
+        payload.put("pullRequestNumber", 42);
+        payload.put("title", "Performance: Optimize database queries for 40% speed improvement");
+        payload.put("body", "Reworks the ingestion hot path. ".repeat(Math.max(1, bodyLength / 32)));
+        payload.put("state", "OPEN");
+        payload.put("url", "https://github.com/sevkic/synapse-project/pull/42");
+        payload.put("author", "sevkic");
+        payload.put("headBranch", "feature/faster-ingest");
+        payload.put("baseBranch", "main");
+        payload.put("additions", 412);
+        payload.put("deletions", 97);
+        payload.put("changedFiles", 14);
+        payload.put("commits", 6);
+        payload.put("reviewComments", 3);
+        payload.put("comments", 5);
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.GITHUB)
+                .sourceEntityId("PR_synapse-project_42")
+                .eventType(EventType.GITHUB_PULL_REQUEST_OPENED)
+                .timestamp(Instant.parse("2024-06-01T12:00:00Z"))
+                .payload(payload)
+                .build();
+    }
+    
+    static SynapseEvent slackMessageEvent(ObjectMapper mapper, int sequence) {
+        ObjectNode payload = mapper.createObjectNode();
+        payload.put("channel", "C1234567890");
+        payload.put("user", "U0" + (sequence % 50));
+        payload.put("text", "Deploy of ingestion-api " + sequence + " finished, p99 latency back under 20 ms");
+        payload.put("ts", "1717243200." + String.format("%06d", sequence));
+        payload.put("type", "message");
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.SLACK)
+                .sourceEntityId("C1234567890_1717243200." + String.format("%06d", sequence))
+                .eventType(EventType.SLACK_MESSAGE_POSTED)
+                .timestamp(Instant.parse("2024-06-01T12:00:00Z").plusSeconds(sequence))
+                .payload(payload)
+                .build();
+    }
+}
\ No newline at end of file
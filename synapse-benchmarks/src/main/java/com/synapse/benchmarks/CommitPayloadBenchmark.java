@@ -0,0 +1,79 @@
+package com.synapse.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.constants.EventType;
+import com.synapse.core.constants.SourceSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Payload and event construction of GitHubConnectorService.createCommitEvent, fed from plain
+// values instead of GHCommit so no GitHub API calls are involved. Keep in step with the connector.
+// Repository metadata is no longer embedded; it travels in separate repository-metadata events.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommitPayloadBenchmark {
+    
+    @Param({"1", "20", "300"})
+    private int filesChanged;
+    
+    private ObjectMapper mapper;
+    private List<FileStats> files;
+    private Instant commitTime;
+    
+    @Setup
+    public void setUp() {
+        mapper = BenchmarkEvents.objectMapper();
+        files = new ArrayList<>(filesChanged);
+        for (int i = 0; i < filesChanged; i++) {
+            files.add(new FileStats(i % 40 + 1, i % 7));
+        }
+        commitTime = Instant.parse("2024-06-01T12:00:00Z");
+    }
+    
+    @Benchmark
+    public SynapseEvent createCommitEvent() {
+        ObjectNode payload = mapper.createObjectNode();
+        
+        payload.put("repository", "sevkic/synapse-project");
+        payload.put("commitId", "3f786850e387550fdab836ed7e6dc881de23001b");
+        payload.put("message", "Batch event inserts with a single multi-row statement");
+        payload.put("url", "https://github.com/sevkic/synapse-project/commit/3f786850e387550fdab836ed7e6dc881de23001b");
+        payload.put("branch", "main");
+        
+        payload.put("author", "Sevkic");
+        payload.put("authorEmail", "sevkic@example.com");
+        
+        if (!files.isEmpty()) {
+            payload.put("filesChanged", files.size());
+            
+            int additions = 0, deletions = 0;
+            for (FileStats file : files) {
+                additions += file.linesAdded();
+                deletions += file.linesDeleted();
+            }
+            payload.put("additions", additions);
+            payload.put("deletions", deletions);
+        }
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.GITHUB)
+                .sourceEntityId("3f786850e387550fdab836ed7e6dc881de23001b")
+                .eventType(EventType.GITHUB_COMMIT_PUSHED)
+                .timestamp(commitTime)
+                .payload(payload)
+                .build();
+    }
+    
+    private record FileStats(int linesAdded, int linesDeleted) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.synapse.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.constants.EventType;
+import com.synapse.ingestion.blob.BlobStore;
+import com.synapse.ingestion.blob.PayloadOffloader;
+import com.synapse.ingestion.metrics.IngestionMetrics;
+import com.synapse.ingestion.repository.EventRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// EventRepository inserts against a running PostgreSQL with the schema from database/schema,
+// e.g. docker-compose up -d postgres. Connection settings come from system properties:
+//   -Dsynapse.benchmark.jdbc-url, -Dsynapse.benchmark.username, -Dsynapse.benchmark.password
+// Rows are written under source system BENCHMARK and deleted again in tear down.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventRepositoryBenchmark {
+    
+    private static final String SOURCE_SYSTEM = "BENCHMARK";
+    private static final int BATCH_SIZE = 100;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    
+    private ObjectMapper mapper;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private EventRepository eventRepository;
+    private String runId;
+    
+    @Setup
+    public void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(System.getProperty("synapse.benchmark.jdbc-url", "jdbc:postgresql://localhost:5433/synapse"));
+        config.setUsername(System.getProperty("synapse.benchmark.username", "synapse"));
+        config.setPassword(System.getProperty("synapse.benchmark.password", "synapse"));
+        config.setMaximumPoolSize(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        dataSource = new HikariDataSource(config);
+        
+        mapper = BenchmarkEvents.objectMapper();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Constructed without Spring, so blob offload keeps its default of disabled
+        PayloadOffloader payloadOffloader = new PayloadOffloader(new BlobStore("target/blobs", meterRegistry), mapper);
+        eventRepository = new EventRepository(jdbcTemplate, mapper, new IngestionMetrics(meterRegistry), 
+                                              new DataSourceTransactionManager(dataSource), payloadOffloader, 100, 2000);
+        eventRepository.warmCodeCache();
+        runId = Long.toString(System.currentTimeMillis(), 36);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM events WHERE source_system_id = (SELECT id FROM source_systems WHERE name = ?)", 
+                            SOURCE_SYSTEM);
+        dataSource.close();
+    }
+    
+    // One autocommitted INSERT per event, the path taken without group commit
+    @Benchmark
+    public boolean save() {
+        return eventRepository.save(nextEvent());
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int saveAll() {
+        List<SynapseEvent> events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(nextEvent());
+        }
+        return eventRepository.saveAll(events).size();
+    }
+    
+    // Unique entity IDs so every event is a real insert rather than a duplicate
+    private SynapseEvent nextEvent() {
+        long n = sequence.incrementAndGet();
+        ObjectNode payload = mapper.createObjectNode();
+        payload.put("channel", "C1234567890");
+        payload.put("user", "U0" + (n % 50));
+        payload.put("text", "Benchmark message " + n);
+        
+        return SynapseEvent.builder()
+                .sourceSystem(SOURCE_SYSTEM)
+                .sourceEntityId(runId + "_" + n)
+                .eventType(EventType.SLACK_MESSAGE_POSTED)
+                .timestamp(Instant.now())
+                .payload(payload)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.synapse.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.json.PayloadPassthroughModule;
+import com.synapse.core.json.RawPayloads;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost per event of turning a request body into the jsonb text we store.
+// Run with -prof gc to see allocation per operation alongside the time.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadPassthroughBenchmark {
+    
+    @Param({"256", "4096", "65536"})
+    private int bodyLength;
+    
+    private ObjectMapper treeMapper;
+    private ObjectMapper passthroughMapper;
+    private byte[] requestBody;
+    
+    @Setup
+    public void setUp() throws Exception {
+        treeMapper = BenchmarkEvents.objectMapper();
+        passthroughMapper = BenchmarkEvents.objectMapper();
+        passthroughMapper.registerModule(new PayloadPassthroughModule());
+        
+        requestBody = treeMapper.writeValueAsBytes(BenchmarkEvents.pullRequestEvent(treeMapper, bodyLength));
+    }
+    
+    // Current path: payload parsed into a JsonNode tree, then serialized back for the PGobject
+    @Benchmark
+    public String treeRoundTrip() throws Exception {
+        SynapseEvent event = treeMapper.readValue(requestBody, SynapseEvent.class);
+        return treeMapper.writeValueAsString(event.payload());
+    }
+    
+    @Benchmark
+    public String passthrough() throws Exception {
+        SynapseEvent event = passthroughMapper.readValue(requestBody, SynapseEvent.class);
+        return RawPayloads.toJson(event.payload(), passthroughMapper);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.synapse.benchmarks;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.constants.EventType;
+import com.synapse.core.constants.SourceSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SynapseEventBuilderBenchmark {
+    
+    private ObjectNode payload;
+    private UUID eventId;
+    private Instant timestamp;
+    
+    @Setup
+    public void setUp() {
+        payload = BenchmarkEvents.objectMapper().createObjectNode().put("text", "hello");
+        eventId = UUID.randomUUID();
+        timestamp = Instant.parse("2024-06-01T12:00:00Z");
+    }
+    
+    // What the connectors do: event ID and timestamp are filled in by the constructor
+    // (UUID.randomUUID and Instant.now)
+    @Benchmark
+    public SynapseEvent buildWithDefaults() {
+        return SynapseEvent.builder()
+                .sourceSystem(SourceSystem.SLACK)
+                .sourceEntityId("C1234567890_1717243200.000100")
+                .eventType(EventType.SLACK_MESSAGE_POSTED)
+                .payload(payload)
+                .build();
+    }
+    
+    @Benchmark
+    public SynapseEvent buildExplicit() {
+        return SynapseEvent.builder()
+                .eventId(eventId)
+                .timestamp(timestamp)
+                .sourceSystem(SourceSystem.SLACK)
+                .sourceEntityId("C1234567890_1717243200.000100")
+                .eventType(EventType.SLACK_MESSAGE_POSTED)
+                .version(1)
+                .payload(payload)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.synapse.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Envelope plus tree payload round trip, as done for every event by the connectors (write)
+// and the ingestion API (read)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SynapseEventJsonBenchmark {
+    
+    @Param({"256", "4096"})
+    private int bodyLength;
+    
+    private ObjectMapper mapper;
+    private SynapseEvent event;
+    private byte[] json;
+    
+    @Setup
+    public void setUp() throws Exception {
+        mapper = BenchmarkEvents.objectMapper();
+        event = BenchmarkEvents.pullRequestEvent(mapper, bodyLength);
+        json = mapper.writeValueAsBytes(event);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(event);
+    }
+    
+    @Benchmark
+    public SynapseEvent deserialize() throws Exception {
+        return mapper.readValue(json, SynapseEvent.class);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.synapse.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.SynapseEvent;
+import com.synapse.core.json.WireFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encode/decode cost of connector-to-ingestion bodies per wire format: a single pull request
+// event, as sent to /ingest, and a batch of Slack messages, as sent to /ingest/batch.
+// The encode benchmarks also report the encoded size in bytes as the secondary result "bytes".
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+    
+    private static final TypeReference<List<SynapseEvent>> EVENT_LIST = new TypeReference<>() {
+    };
+    
+    @Param({"JSON", "SMILE", "CBOR"})
+    private WireFormat format;
+    
+    @Param({"100"})
+    private int batchSize;
+    
+    private ObjectMapper mapper;
+    private SynapseEvent event;
+    private List<SynapseEvent> batch;
+    private byte[] encodedEvent;
+    private byte[] encodedBatch;
+    
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper jsonMapper = BenchmarkEvents.objectMapper();
+        mapper = format.mapper(jsonMapper);
+        
+        event = BenchmarkEvents.pullRequestEvent(jsonMapper, 512);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(BenchmarkEvents.slackMessageEvent(jsonMapper, i));
+        }
+        
+        encodedEvent = mapper.writeValueAsBytes(event);
+        encodedBatch = mapper.writeValueAsBytes(batch);
+    }
+    
+    @Benchmark
+    public byte[] encodeEvent(EncodedSize size) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(event);
+        size.bytes = encoded.length;
+        return encoded;
+    }
+    
+    @Benchmark
+    public SynapseEvent decodeEvent() throws Exception {
+        return mapper.readValue(encodedEvent, SynapseEvent.class);
+    }
+    
+    @Benchmark
+    public byte[] encodeBatch(EncodedSize size) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(batch);
+        size.bytes = encoded.length;
+        return encoded;
+    }
+    
+    @Benchmark
+    public List<SynapseEvent> decodeBatch() throws Exception {
+        return mapper.readValue(encodedBatch, EVENT_LIST);
+    }
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        
+        // Assigned rather than accumulated, so an iteration reports the size of one encoded body
+        public long bytes;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
\ No newline at end of file
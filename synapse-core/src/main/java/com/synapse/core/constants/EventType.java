@@ -6,6 +6,7 @@ public final class EventType {
     public static final String JIRA_TICKET_COMMENT_ADDED = "JiraTicketCommentAddedEvent";
     public static final String GITHUB_COMMIT_PUSHED = "GitHubCommitPushedEvent";
     public static final String GITHUB_PULL_REQUEST_OPENED = "GitHubPullRequestOpenedEvent";
+    public static final String GITHUB_REPOSITORY_UPDATED = "GitHubRepositoryUpdatedEvent";
     public static final String CONFLUENCE_PAGE_CREATED = "ConfluencePageCreatedEvent";
     public static final String CONFLUENCE_PAGE_UPDATED = "ConfluencePageUpdatedEvent";
     
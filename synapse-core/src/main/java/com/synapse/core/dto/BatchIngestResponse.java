@@ -0,0 +1,44 @@
+package com.synapse.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BatchIngestResponse(
+        @JsonProperty("received") 
+        int received,
+        
+        @JsonProperty("succeeded") 
+        int succeeded,
+        
+        @JsonProperty("failed") 
+        int failed,
+        
+        @NotNull
+        @Valid
+        @JsonProperty("results") 
+        List<IngestResult> results
+) {
+    @JsonCreator
+    public BatchIngestResponse(
+            @JsonProperty("received") int received,
+            @JsonProperty("succeeded") int succeeded,
+            @JsonProperty("failed") int failed,
+            @JsonProperty("results") List<IngestResult> results
+    ) {
+        this.received = received;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.results = results != null ? results : List.of();
+    }
+    
+    public static BatchIngestResponse of(List<IngestResult> results) {
+        int succeeded = (int) results.stream()
+                .filter(result -> result.status() != null && result.status().isSuccess())
+                .count();
+        return new BatchIngestResponse(results.size(), succeeded, results.size() - succeeded, results);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.synapse.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record BulkLoadResponse(
+        @JsonProperty("received") 
+        long received,
+        
+        @JsonProperty("inserted") 
+        long inserted,
+        
+        @JsonProperty("duplicates") 
+        long duplicates,
+        
+        @JsonProperty("rejected") 
+        long rejected,
+        
+        @JsonProperty("durationMs") 
+        long durationMs
+) {
+    @JsonCreator
+    public BulkLoadResponse(
+            @JsonProperty("received") long received,
+            @JsonProperty("inserted") long inserted,
+            @JsonProperty("duplicates") long duplicates,
+            @JsonProperty("rejected") long rejected,
+            @JsonProperty("durationMs") long durationMs
+    ) {
+        this.received = received;
+        this.inserted = inserted;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.durationMs = durationMs;
+    }
+}
\ No newline at end of file
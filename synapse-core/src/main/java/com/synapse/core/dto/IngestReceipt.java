@@ -0,0 +1,61 @@
+package com.synapse.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record IngestReceipt(
+        @JsonProperty("receiptId") 
+        UUID receiptId,
+        
+        @JsonProperty("eventId") 
+        UUID eventId,
+        
+        @JsonProperty("state") 
+        State state,
+        
+        // Outcome of the ingest, set once the receipt is COMPLETED
+        @JsonProperty("status") 
+        IngestStatus status,
+        
+        @JsonProperty("message") 
+        String message,
+        
+        @JsonProperty("submittedAt") 
+        Instant submittedAt,
+        
+        @JsonProperty("completedAt") 
+        Instant completedAt
+) {
+    @JsonCreator
+    public IngestReceipt(
+            @JsonProperty("receiptId") UUID receiptId,
+            @JsonProperty("eventId") UUID eventId,
+            @JsonProperty("state") State state,
+            @JsonProperty("status") IngestStatus status,
+            @JsonProperty("message") String message,
+            @JsonProperty("submittedAt") Instant submittedAt,
+            @JsonProperty("completedAt") Instant completedAt
+    ) {
+        this.receiptId = receiptId;
+        this.eventId = eventId;
+        this.state = state;
+        this.status = status;
+        this.message = message;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+    }
+    
+    public static IngestReceipt unknown(UUID receiptId) {
+        return new IngestReceipt(receiptId, null, State.UNKNOWN, null, null, null, null);
+    }
+    
+    public enum State {
+        PENDING,
+        COMPLETED,
+        // Never issued, expired from the receipt store or lost in a restart; resending the event is safe
+        UNKNOWN
+    }
+}
\ No newline at end of file
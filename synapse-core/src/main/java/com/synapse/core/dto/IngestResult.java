@@ -0,0 +1,35 @@
+package com.synapse.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record IngestResult(
+        @JsonProperty("index") 
+        int index,
+        
+        @JsonProperty("eventId") 
+        UUID eventId,
+        
+        @NotNull
+        @JsonProperty("status") 
+        IngestStatus status,
+        
+        @JsonProperty("message") 
+        String message
+) {
+    @JsonCreator
+    public IngestResult(
+            @JsonProperty("index") int index,
+            @JsonProperty("eventId") UUID eventId,
+            @JsonProperty("status") IngestStatus status,
+            @JsonProperty("message") String message
+    ) {
+        this.index = index;
+        this.eventId = eventId;
+        this.status = status;
+        this.message = message;
+    }
+}
\ No newline at end of file
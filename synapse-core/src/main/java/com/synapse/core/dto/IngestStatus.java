@@ -0,0 +1,14 @@
+package com.synapse.core.dto;
+
+public enum IngestStatus {
+    CREATED,
+    DUPLICATE,
+    // Durably queued, written to the database later
+    ACCEPTED,
+    REJECTED,
+    FAILED;
+    
+    public boolean isSuccess() {
+        return this != REJECTED && this != FAILED;
+    }
+}
\ No newline at end of file
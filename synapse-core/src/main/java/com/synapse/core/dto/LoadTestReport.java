@@ -0,0 +1,113 @@
+package com.synapse.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+public record LoadTestReport(
+        @JsonProperty("runId") 
+        String runId,
+        
+        @JsonProperty("state") 
+        State state,
+        
+        @JsonProperty("request") 
+        LoadTestRequest request,
+        
+        @JsonProperty("startedAt") 
+        Instant startedAt,
+        
+        @JsonProperty("elapsedMs") 
+        long elapsedMs,
+        
+        @JsonProperty("plannedEvents") 
+        long plannedEvents,
+        
+        @JsonProperty("sent") 
+        long sent,
+        
+        // Created, or accepted into the spool
+        @JsonProperty("succeeded") 
+        long succeeded,
+        
+        @JsonProperty("duplicates") 
+        long duplicates,
+        
+        @JsonProperty("rejected") 
+        long rejected,
+        
+        @JsonProperty("overloaded") 
+        long overloaded,
+        
+        @JsonProperty("failed") 
+        long failed,
+        
+        @JsonProperty("achievedEventsPerSecond") 
+        double achievedEventsPerSecond,
+        
+        // Measured from the time each event was scheduled to be sent, so it includes any wait
+        // for a free worker when the target rate is not being kept up with
+        @JsonProperty("latency") 
+        Percentiles latency,
+        
+        // Time spent inside ingestEvent only
+        @JsonProperty("serviceTime") 
+        Percentiles serviceTime
+) {
+    @JsonCreator
+    public LoadTestReport(
+            @JsonProperty("runId") String runId,
+            @JsonProperty("state") State state,
+            @JsonProperty("request") LoadTestRequest request,
+            @JsonProperty("startedAt") Instant startedAt,
+            @JsonProperty("elapsedMs") long elapsedMs,
+            @JsonProperty("plannedEvents") long plannedEvents,
+            @JsonProperty("sent") long sent,
+            @JsonProperty("succeeded") long succeeded,
+            @JsonProperty("duplicates") long duplicates,
+            @JsonProperty("rejected") long rejected,
+            @JsonProperty("overloaded") long overloaded,
+            @JsonProperty("failed") long failed,
+            @JsonProperty("achievedEventsPerSecond") double achievedEventsPerSecond,
+            @JsonProperty("latency") Percentiles latency,
+            @JsonProperty("serviceTime") Percentiles serviceTime
+    ) {
+        this.runId = runId;
+        this.state = state;
+        this.request = request;
+        this.startedAt = startedAt;
+        this.elapsedMs = elapsedMs;
+        this.plannedEvents = plannedEvents;
+        this.sent = sent;
+        this.succeeded = succeeded;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.overloaded = overloaded;
+        this.failed = failed;
+        this.achievedEventsPerSecond = achievedEventsPerSecond;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+    }
+    
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        STOPPED
+    }
+    
+    public record Percentiles(
+            @JsonProperty("p50Ms") 
+            double p50Ms,
+            
+            @JsonProperty("p95Ms") 
+            double p95Ms,
+            
+            @JsonProperty("p99Ms") 
+            double p99Ms,
+            
+            @JsonProperty("maxMs") 
+            double maxMs
+    ) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.synapse.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.synapse.core.constants.SourceSystem;
+
+import java.util.Map;
+
+// Missing fields fall back to a small mixed workload: 100 events/s from 8 workers for a minute
+public record LoadTestRequest(
+        @JsonProperty("eventsPerSecond") 
+        double eventsPerSecond,
+        
+        @JsonProperty("concurrency") 
+        int concurrency,
+        
+        @JsonProperty("durationSeconds") 
+        long durationSeconds,
+        
+        // Relative weights per source system
+        @JsonProperty("sourceMix") 
+        Map<String, Double> sourceMix,
+        
+        // Relative weights per event type within its source system, unlisted types weigh 1
+        @JsonProperty("eventTypeMix") 
+        Map<String, Double> eventTypeMix,
+        
+        @JsonProperty("payloadSizeDistribution") 
+        PayloadSizeDistribution payloadSizeDistribution,
+        
+        @JsonProperty("payloadSizeBytes") 
+        int payloadSizeBytes,
+        
+        @JsonProperty("payloadSizeMaxBytes") 
+        int payloadSizeMaxBytes,
+        
+        @JsonProperty("seed") 
+        long seed
+) {
+    @JsonCreator
+    public LoadTestRequest(
+            @JsonProperty("eventsPerSecond") Double eventsPerSecond,
+            @JsonProperty("concurrency") Integer concurrency,
+            @JsonProperty("durationSeconds") Long durationSeconds,
+            @JsonProperty("sourceMix") Map<String, Double> sourceMix,
+            @JsonProperty("eventTypeMix") Map<String, Double> eventTypeMix,
+            @JsonProperty("payloadSizeDistribution") PayloadSizeDistribution payloadSizeDistribution,
+            @JsonProperty("payloadSizeBytes") Integer payloadSizeBytes,
+            @JsonProperty("payloadSizeMaxBytes") Integer payloadSizeMaxBytes,
+            @JsonProperty("seed") Long seed
+    ) {
+        this(eventsPerSecond != null ? eventsPerSecond : 100.0,
+             concurrency != null ? concurrency : 8,
+             durationSeconds != null ? durationSeconds : 60,
+             sourceMix != null ? sourceMix : Map.of(SourceSystem.SLACK, 4.0, SourceSystem.JIRA, 3.0, SourceSystem.GITHUB, 3.0),
+             eventTypeMix != null ? eventTypeMix : Map.of(),
+             payloadSizeDistribution != null ? payloadSizeDistribution : PayloadSizeDistribution.NATURAL,
+             payloadSizeBytes != null ? payloadSizeBytes : 1024,
+             payloadSizeMaxBytes != null ? payloadSizeMaxBytes : 65536,
+             seed != null ? seed : 42L);
+    }
+    
+    public long plannedEvents() {
+        return (long) Math.floor(eventsPerSecond * durationSeconds);
+    }
+}
\ No newline at end of file
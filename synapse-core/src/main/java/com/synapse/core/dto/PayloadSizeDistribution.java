@@ -0,0 +1,13 @@
+package com.synapse.core.dto;
+
+// How the load generator sizes event payloads, see LoadTestRequest
+public enum PayloadSizeDistribution {
+    // Payloads as the generator builds them, no padding
+    NATURAL,
+    // Every payload padded to payloadSizeBytes
+    FIXED,
+    // Uniform between payloadSizeBytes and payloadSizeMaxBytes
+    UNIFORM,
+    // Log-normal with median payloadSizeBytes, capped at payloadSizeMaxBytes
+    LOG_NORMAL
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.synapse.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record StreamIngestResponse(
+        @JsonProperty("received") 
+        long received,
+        
+        @JsonProperty("succeeded") 
+        long succeeded,
+        
+        @JsonProperty("failed") 
+        long failed,
+        
+        @JsonProperty("rejectedLines") 
+        List<Long> rejectedLines,
+        
+        @JsonProperty("durationMs") 
+        long durationMs,
+        
+        @JsonProperty("eventsPerSecond") 
+        double eventsPerSecond
+) {
+    @JsonCreator
+    public StreamIngestResponse(
+            @JsonProperty("received") long received,
+            @JsonProperty("succeeded") long succeeded,
+            @JsonProperty("failed") long failed,
+            @JsonProperty("rejectedLines") List<Long> rejectedLines,
+            @JsonProperty("durationMs") long durationMs,
+            @JsonProperty("eventsPerSecond") double eventsPerSecond
+    ) {
+        this.received = received;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.rejectedLines = rejectedLines != null ? rejectedLines : List.of();
+        this.durationMs = durationMs;
+        this.eventsPerSecond = eventsPerSecond;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.synapse.core.encoding;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// HTTP content codings used for request bodies between the connectors and the ingestion API
+public enum ContentEncoding {
+    GZIP("gzip"),
+    // Compresses event JSON about as well as gzip at a fraction of the CPU
+    ZSTD("zstd");
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final String token;
+    
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+    
+    public String token() {
+        return token;
+    }
+    
+    // Returns null for a missing or identity Content-Encoding
+    public static ContentEncoding fromHeader(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        
+        String value = header.trim().toLowerCase(Locale.ROOT);
+        return switch (value) {
+            case "identity" -> null;
+            case "gzip", "x-gzip" -> GZIP;
+            case "zstd" -> ZSTD;
+            default -> throw new IllegalArgumentException("Unsupported content encoding: " + header);
+        };
+    }
+    
+    public InputStream decode(InputStream compressed) throws IOException {
+        return switch (this) {
+            case GZIP -> new GZIPInputStream(compressed, BUFFER_SIZE);
+            case ZSTD -> new ZstdInputStream(compressed);
+        };
+    }
+    
+    public OutputStream encode(OutputStream target) throws IOException {
+        return switch (this) {
+            case GZIP -> new GZIPOutputStream(target, BUFFER_SIZE);
+            case ZSTD -> new ZstdOutputStream(target);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.synapse.core.encoding;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Compresses request bodies of at least minSizeBytes sent to one target base URL.
+// Small bodies go out as is: compressing them costs more than it saves.
+public class RequestCompressionInterceptor implements ClientHttpRequestInterceptor {
+    
+    private final String targetUrl;
+    private final ContentEncoding encoding;
+    private final int minSizeBytes;
+    
+    public RequestCompressionInterceptor(String targetUrl, ContentEncoding encoding, int minSizeBytes) {
+        this.targetUrl = targetUrl;
+        this.encoding = encoding;
+        this.minSizeBytes = minSizeBytes;
+    }
+    
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) 
+            throws IOException {
+        if (body.length < minSizeBytes 
+                || !request.getURI().toString().startsWith(targetUrl)
+                || request.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return execution.execute(request, body);
+        }
+        
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = encoding.encode(compressed)) {
+            out.write(body);
+        }
+        
+        request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, encoding.token());
+        request.getHeaders().setContentLength(compressed.size());
+        return execution.execute(request, compressed.toByteArray());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.synapse.core.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synapse.core.encoding.ContentEncoding;
+import com.synapse.core.encoding.RequestCompressionInterceptor;
+import com.synapse.core.json.WireFormat;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+// The RestTemplate every connector sends events to the ingestion API with: request compression,
+// Retry-After aware retries and the binary wire formats. Each connector passes its own settings.
+public final class IngestionRestTemplateFactory {
+    
+    private IngestionRestTemplateFactory() {
+        // Utility class
+    }
+    
+    public static RestTemplate create(ObjectMapper objectMapper, Settings settings) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(settings.connectTimeout());
+        requestFactory.setReadTimeout(settings.readTimeout());
+        
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        if (settings.compress()) {
+            restTemplate.getInterceptors().add(new RequestCompressionInterceptor(
+                    settings.url(), settings.encoding(), settings.minCompressBytes()));
+        }
+        // Last, so a retry resends the already compressed body; ingestion is idempotent, so
+        // retrying a POST that was shed is safe
+        restTemplate.getInterceptors().add(new RetryAfterInterceptor(
+                settings.url(), settings.maxAttempts(), settings.initialBackoffMs(), settings.maxBackoffMs()));
+        // Encode binary event bodies with the same configuration as JSON ones
+        restTemplate.getMessageConverters().add(0, 
+                new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.mapper(objectMapper)));
+        restTemplate.getMessageConverters().add(0, 
+                new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.mapper(objectMapper)));
+        return restTemplate;
+    }
+    
+    public record Settings(String url, boolean compress, ContentEncoding encoding, int minCompressBytes,
+                           int maxAttempts, long initialBackoffMs, long maxBackoffMs,
+                           Duration connectTimeout, Duration readTimeout) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.synapse.core.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Retries requests to one target base URL that were shed with 429 or 503, after the Retry-After
+// the server sent, or an exponential backoff with jitter when it sent none. Waits are capped at
+// maxBackoffMs. Must be the last interceptor, so each retry resends the body exactly as before.
+public class RetryAfterInterceptor implements ClientHttpRequestInterceptor {
+    
+    private final String targetUrl;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    
+    public RetryAfterInterceptor(String targetUrl, int maxAttempts, long initialBackoffMs, long maxBackoffMs) {
+        this.targetUrl = targetUrl;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+    
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) 
+            throws IOException {
+        boolean target = request.getURI().toString().startsWith(targetUrl);
+        
+        for (int attempt = 1; ; attempt++) {
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            if (!target || attempt >= maxAttempts 
+                    || (status != HttpStatus.TOO_MANY_REQUESTS.value() && status != HttpStatus.SERVICE_UNAVAILABLE.value())) {
+                return response;
+            }
+            
+            long waitMs = waitMillis(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), attempt);
+            response.close();
+            try {
+                Thread.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry " + request.getURI());
+            }
+        }
+    }
+    
+    private long waitMillis(String retryAfter, int attempt) {
+        Long requested = parseRetryAfter(retryAfter);
+        if (requested != null) {
+            return Math.min(Math.max(0, requested), maxBackoffMs);
+        }
+        
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+    
+    // Retry-After is either delay-seconds or an HTTP date
+    private static Long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            // Not delay-seconds, try the date form
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return at.toInstant().toEpochMilli() - System.currentTimeMillis();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
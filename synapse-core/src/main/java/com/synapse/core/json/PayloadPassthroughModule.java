@@ -0,0 +1,13 @@
+package com.synapse.core.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.synapse.core.SynapseEvent;
+
+// Register on an ObjectMapper to read SynapseEvent payloads as raw JSON text (see RawPayloads)
+public class PayloadPassthroughModule extends SimpleModule {
+    
+    public PayloadPassthroughModule() {
+        super("PayloadPassthroughModule");
+        setMixInAnnotation(SynapseEvent.class, SynapseEventPassthroughMixin.class);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.synapse.core.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+// Copies the payload token by token into its JSON text instead of building a JsonNode tree.
+// The result is a POJONode holding a RawValue, which serializes back out unchanged.
+public class RawPayloadDeserializer extends StdDeserializer<JsonNode> {
+    
+    // Payloads are always captured as JSON text, whatever format the envelope arrived in
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    public RawPayloadDeserializer() {
+        super(JsonNode.class);
+    }
+    
+    @Override
+    public JsonNode deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        StringWriter json = new StringWriter(256);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(json)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return JsonNodeFactory.instance.rawValueNode(new RawValue(json.toString()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.synapse.core.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+public final class RawPayloads {
+    
+    private RawPayloads() {
+        // Utility class
+    }
+    
+    // Returns captured payload text as is and only serializes payloads that were built as trees
+    public static String toJson(JsonNode payload, ObjectMapper objectMapper) throws JsonProcessingException {
+        String raw = rawJson(payload);
+        return raw != null ? raw : objectMapper.writeValueAsString(payload);
+    }
+    
+    public static boolean isObject(JsonNode payload) {
+        if (payload == null) {
+            return false;
+        }
+        
+        String raw = rawJson(payload);
+        if (raw == null) {
+            return payload.isObject();
+        }
+        
+        // Captured text is generator output, so it never starts with whitespace
+        return !raw.isEmpty() && raw.charAt(0) == '{';
+    }
+    
+    // The captured payload text, or null for payloads that were built as trees
+    public static String rawJson(JsonNode payload) {
+        if (payload instanceof POJONode node && node.getPojo() instanceof RawValue rawValue) {
+            Object value = rawValue.rawValue();
+            return value instanceof SerializableString serializable ? serializable.getValue() : (String) value;
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.synapse.core.json;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Mirrors the SynapseEvent creator so only the payload parameter picks up the raw deserializer
+abstract class SynapseEventPassthroughMixin {
+    
+    @JsonCreator
+    SynapseEventPassthroughMixin(
+            @JsonProperty("eventId") UUID eventId,
+            @JsonProperty("correlationId") UUID correlationId,
+            @JsonProperty("timestamp") Instant timestamp,
+            @JsonProperty("sourceSystem") String sourceSystem,
+            @JsonProperty("sourceEntityId") String sourceEntityId,
+            @JsonProperty("eventType") String eventType,
+            @JsonProperty("version") Integer version,
+            @JsonProperty("payload") @JsonDeserialize(using = RawPayloadDeserializer.class) JsonNode payload
+    ) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.synapse.core.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// Encodings accepted for SynapseEvents between the connectors and the ingestion API.
+// The binary formats carry the same data model as JSON, so all three decode to identical events.
+public enum WireFormat {
+    JSON("application/json"),
+    // Back-references repeated property names, so batches of envelopes shrink the most
+    SMILE("application/x-jackson-smile"),
+    CBOR("application/cbor");
+    
+    private final String contentType;
+    
+    WireFormat(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public String contentType() {
+        return contentType;
+    }
+    
+    // A mapper for this format with the configuration and modules of the given JSON mapper
+    public ObjectMapper mapper(ObjectMapper jsonMapper) {
+        return switch (this) {
+            case JSON -> jsonMapper;
+            case SMILE -> jsonMapper.copyWith(new SmileFactory());
+            case CBOR -> jsonMapper.copyWith(new CBORFactory());
+        };
+    }
+}
\ No newline at end of file
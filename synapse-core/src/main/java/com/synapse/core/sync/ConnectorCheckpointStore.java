@@ -0,0 +1,128 @@
+package com.synapse.core.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One source system's checkpoints in connector_sync_state, keyed by sync_key (a repository, a
+// channel), read through an in-memory cache. Updates land in the cache at once and are written to
+// the table in one batch by flush(), which the owning connector calls every flush interval and on
+// shutdown, so a restart resumes from the last checkpoint instead of re-scanning history.
+public class ConnectorCheckpointStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConnectorCheckpointStore.class);
+    
+    private static final String SELECT_SQL = """
+            SELECT last_sync_timestamp, last_processed_id FROM connector_sync_state
+            WHERE source_system = ? AND sync_key = ?
+            """;
+    
+    private static final String UPSERT_SQL = """
+            INSERT INTO connector_sync_state (source_system, sync_key, last_sync_timestamp, last_processed_id)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (source_system, sync_key) DO UPDATE
+            SET last_sync_timestamp = EXCLUDED.last_sync_timestamp,
+                last_processed_id = COALESCE(EXCLUDED.last_processed_id, connector_sync_state.last_processed_id),
+                updated_at = NOW()
+            """;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final String sourceSystem;
+    
+    // Empty when the table has no row for the key, so it is not queried again
+    private final Map<String, Optional<Checkpoint>> cache = new ConcurrentHashMap<>();
+    private final Map<String, Checkpoint> pending = new ConcurrentHashMap<>();
+    
+    public ConnectorCheckpointStore(JdbcTemplate jdbcTemplate, String sourceSystem) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sourceSystem = sourceSystem;
+    }
+    
+    // Null when there is no checkpoint yet, or it could not be read; a failed read is not cached,
+    // so the next call reads the table again
+    public Checkpoint load(String syncKey) {
+        Optional<Checkpoint> cached = cache.get(syncKey);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        
+        try {
+            List<Checkpoint> found = jdbcTemplate.query(SELECT_SQL,
+                    (rs, rowNum) -> new Checkpoint(rs.getTimestamp(1).toInstant(), rs.getString(2)),
+                    sourceSystem, syncKey);
+            Optional<Checkpoint> checkpoint = found.stream().findFirst();
+            // An update that raced with the query wins over what was read
+            return cache.computeIfAbsent(syncKey, key -> checkpoint).orElse(null);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to read {} sync state for {}", sourceSystem, syncKey, e);
+            return null;
+        }
+    }
+    
+    // A null lastProcessedId keeps the one already recorded
+    public void update(String syncKey, Instant lastSyncTimestamp, String lastProcessedId) {
+        if (lastProcessedId == null) {
+            Checkpoint previous = load(syncKey);
+            lastProcessedId = previous != null ? previous.lastProcessedId() : null;
+        }
+        Checkpoint checkpoint = new Checkpoint(lastSyncTimestamp, lastProcessedId);
+        cache.put(syncKey, Optional.of(checkpoint));
+        pending.put(syncKey, checkpoint);
+        logger.debug("Updated {} sync state for {}: {} ({})", sourceSystem, syncKey, lastSyncTimestamp, lastProcessedId);
+    }
+    
+    public void clear(String syncKey) {
+        pending.remove(syncKey);
+        jdbcTemplate.update("DELETE FROM connector_sync_state WHERE source_system = ? AND sync_key = ?",
+                            sourceSystem, syncKey);
+        cache.remove(syncKey);
+        logger.info("Cleared {} sync state for {}", sourceSystem, syncKey);
+    }
+    
+    public void clearAll() {
+        pending.clear();
+        jdbcTemplate.update("DELETE FROM connector_sync_state WHERE source_system = ?", sourceSystem);
+        cache.clear();
+        logger.info("Cleared all {} sync state", sourceSystem);
+    }
+    
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Checkpoint> batch = new LinkedHashMap<>();
+        for (Map.Entry<String, Checkpoint> entry : pending.entrySet()) {
+            // Only taken if no newer checkpoint replaced it in the meantime
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((key, checkpoint) -> rows.add(new Object[] {
+                sourceSystem, key, Timestamp.from(checkpoint.lastSyncTimestamp()), checkpoint.lastProcessedId()}));
+        
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            logger.debug("Persisted {} {} checkpoints", rows.size(), sourceSystem);
+        } catch (DataAccessException e) {
+            // Put back for the next flush unless a newer checkpoint is already waiting
+            batch.forEach(pending::putIfAbsent);
+            logger.warn("Failed to persist {} {} checkpoints, will retry", rows.size(), sourceSystem, e);
+        }
+    }
+    
+    public record Checkpoint(Instant lastSyncTimestamp, String lastProcessedId) {
+    }
+}
\ No newline at end of file
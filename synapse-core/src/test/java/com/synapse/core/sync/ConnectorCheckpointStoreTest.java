@@ -0,0 +1,149 @@
+package com.synapse.core.sync;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectorCheckpointStoreTest {
+    
+    private static final Instant T1 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant T2 = Instant.parse("2026-01-02T00:00:00Z");
+    private static final Instant T3 = Instant.parse("2026-01-03T00:00:00Z");
+    
+    private JdbcTemplate jdbcTemplate;
+    private ConnectorCheckpointStore store;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        store = new ConnectorCheckpointStore(jdbcTemplate, "SLACK");
+    }
+    
+    @Test
+    void readsEachKeyOnceIncludingMissingOnes() {
+        stored("C1", new ConnectorCheckpointStore.Checkpoint(T1, "1700000000.000100"));
+        stored("C2");
+        
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.load("C1")).isEqualTo(new ConnectorCheckpointStore.Checkpoint(T1, "1700000000.000100"));
+            assertThat(store.load("C2")).isNull();
+        }
+        
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq("SLACK"), eq("C1"));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq("SLACK"), eq("C2"));
+    }
+    
+    @Test
+    void failedReadIsNotCached() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("SLACK"), eq("C1")))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(List.of(new ConnectorCheckpointStore.Checkpoint(T1, "a")));
+        
+        assertThat(store.load("C1")).isNull();
+        assertThat(store.load("C1")).isEqualTo(new ConnectorCheckpointStore.Checkpoint(T1, "a"));
+    }
+    
+    @Test
+    void updatesAreReadBackAtOnceAndWrittenInOneBatchOnFlush() {
+        stored("C1");
+        stored("C2");
+        
+        store.update("C1", T1, "a");
+        store.update("C2", T2, "b");
+        store.update("C1", T3, "c");
+        
+        assertThat(store.load("C1")).isEqualTo(new ConnectorCheckpointStore.Checkpoint(T3, "c"));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        
+        store.flush();
+        List<Object[]> rows = flushedRows(1).get(0);
+        assertThat(rows).hasSize(2);
+        assertThat(row(rows, "C1")).containsExactly("SLACK", "C1", Timestamp.from(T3), "c");
+        assertThat(row(rows, "C2")).containsExactly("SLACK", "C2", Timestamp.from(T2), "b");
+        
+        // Nothing new to write
+        store.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+    
+    @Test
+    void failedFlushIsRetriedWithoutOverwritingNewerCheckpoints() {
+        stored("C1");
+        stored("C2");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(new int[] {1, 1});
+        
+        store.update("C1", T1, "a");
+        store.update("C2", T1, "b");
+        store.flush();
+        
+        // C1 moves on before the retry; C2 goes out with what failed
+        store.update("C1", T2, "c");
+        store.flush();
+        
+        List<Object[]> retried = flushedRows(2).get(1);
+        assertThat(retried).hasSize(2);
+        assertThat(row(retried, "C1")).containsExactly("SLACK", "C1", Timestamp.from(T2), "c");
+        assertThat(row(retried, "C2")).containsExactly("SLACK", "C2", Timestamp.from(T1), "b");
+    }
+    
+    @Test
+    void nullProcessedIdKeepsTheRecordedOne() {
+        stored("C1", new ConnectorCheckpointStore.Checkpoint(T1, "1700000000.000100"));
+        
+        store.update("C1", T2, null);
+        
+        assertThat(store.load("C1")).isEqualTo(new ConnectorCheckpointStore.Checkpoint(T2, "1700000000.000100"));
+        store.flush();
+        assertThat(row(flushedRows(1).get(0), "C1"))
+                .containsExactly("SLACK", "C1", Timestamp.from(T2), "1700000000.000100");
+    }
+    
+    @Test
+    void clearDropsPendingAndCachedState() {
+        stored("C1");
+        store.update("C1", T1, "a");
+        
+        store.clear("C1");
+        store.flush();
+        
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertThat(store.load("C1")).isNull();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void stored(String syncKey, ConnectorCheckpointStore.Checkpoint... checkpoints) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("SLACK"), eq(syncKey)))
+                .thenReturn(List.of(checkpoints));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> flushedRows(int flushes) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(flushes)).batchUpdate(anyString(), rows.capture());
+        return rows.getAllValues();
+    }
+    
+    private static Object[] row(List<Object[]> rows, String syncKey) {
+        return rows.stream().filter(row -> syncKey.equals(row[1])).findFirst().orElseThrow();
+    }
+}
\ No newline at end of file